@@ -11,6 +11,8 @@ import ru.practicum.gateway.booking.dto.BookingDto;
 import ru.practicum.gateway.booking.dto.BookingState;
 import ru.practicum.gateway.client.BaseClient;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -39,26 +41,50 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
+    public ResponseEntity<Object> approveBookings(Long userId, List<Long> bookingIds, Boolean approved) {
+        Map<String, Object> parameters = Map.of(
+                "approved", approved.toString()
+        );
+        return patch("/bulk?approved={approved}", userId, parameters, bookingIds);
+    }
+
     public ResponseEntity<Object> getById(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getByUser(Long userId, BookingState state, Long from, Long size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getByUser(Long userId, BookingState state, Long from, Long size, String after) {
+        return get(withCursor("?state={state}&from={from}&size={size}", after), userId,
+                pageParameters(state, from, size, after));
     }
 
-    public ResponseEntity<Object> getByItemsOwner(Long userId, BookingState state, Long from, Long size) {
-        Map<String, Object> parameters = Map.of(
+    public ResponseEntity<Object> getByItemsOwner(Long userId, BookingState state, Long from, Long size,
+                                                  String after) {
+        return get(withCursor("/owner?state={state}&from={from}&size={size}", after), userId,
+                pageParameters(state, from, size, after));
+    }
+
+    public ResponseEntity<Object> getSummaryByUser(Long userId) {
+        return get("/summary", userId);
+    }
+
+    public ResponseEntity<Object> getSummaryByItemsOwner(Long userId) {
+        return get("/owner/summary", userId);
+    }
+
+    private String withCursor(String path, String after) {
+        return after == null ? path : path + "&after={after}";
+    }
+
+    private Map<String, Object> pageParameters(BookingState state, Long from, Long size, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        if (after != null) {
+            parameters.put("after", after);
+        }
+        return parameters;
     }
 
 }
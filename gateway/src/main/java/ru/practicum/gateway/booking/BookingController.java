@@ -10,8 +10,12 @@ import ru.practicum.gateway.booking.dto.BookingDto;
 import ru.practicum.gateway.booking.dto.BookingState;
 import ru.practicum.gateway.validation.OnCreate;
 
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -39,6 +43,30 @@ public class BookingController {
         return bookingClient.approveBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/bulk")
+    public ResponseEntity<Object> approveBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @RequestParam Boolean approved,
+                                                  @RequestBody
+                                                  @NotEmpty(message = "Список бронирований не должен быть пустым")
+                                                  @Size(max = 100, message = "Не более 100 бронирований за раз")
+                                                  List<@NotNull Long> bookingIds) {
+        log.info("Запрос на подтверждение или отклонение {} бронирований владельцем с id = {}",
+                bookingIds.size(), userId);
+        return bookingClient.approveBookings(userId, bookingIds, approved);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<Object> getBookingsSummaryByUser(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Запрос на получение количества бронирований пользователя с id = {} по состояниям", userId);
+        return bookingClient.getSummaryByUser(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getBookingsSummaryByItemsOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Запрос на получение количества бронирований вещей владельца с id = {} по состояниям", userId);
+        return bookingClient.getSummaryByItemsOwner(userId);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                  @PathVariable Long bookingId) {
@@ -54,12 +82,13 @@ public class BookingController {
                                                     Long from,
                                                     @RequestParam(defaultValue = "10")
                                                     @Positive(message = "Параметр 'size' должен быть больше 0")
-                                                    Long size) {
+                                                    Long size,
+                                                    @RequestParam(required = false) String after) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
 
         log.info("Запрос на получение списка бронирований пользователя с id = {}", userId);
-        return bookingClient.getByUser(userId, state, from, size);
+        return bookingClient.getByUser(userId, state, from, size, after);
     }
 
     @GetMapping("/owner")
@@ -70,11 +99,12 @@ public class BookingController {
                                                           Long from,
                                                           @RequestParam(defaultValue = "10")
                                                           @Positive(message = "Параметр 'size' должен быть больше 0")
-                                                          Long size) {
+                                                          Long size,
+                                                          @RequestParam(required = false) String after) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
 
         log.info("Запрос на получение списка бронирований вещей владельцем с id = {}", userId);
-        return bookingClient.getByItemsOwner(userId, state, from, size);
+        return bookingClient.getByItemsOwner(userId, state, from, size, after);
     }
 }
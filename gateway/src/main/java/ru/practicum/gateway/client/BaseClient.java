@@ -1,22 +1,38 @@
 package ru.practicum.gateway.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
+import javax.servlet.http.HttpServletResponse;
+
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public class BaseClient {
     protected final RestTemplate rest;
+    @Nullable
+    protected final RestTemplate streamRest;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable RestTemplate streamRest) {
         this.rest = rest;
+        this.streamRest = streamRest;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -79,6 +95,75 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected void stream(String path, Long userId, @Nullable Map<String, Object> parameters,
+                          HttpServletResponse response) throws IOException {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setAccept(List.of(MediaType.ALL));
+        try {
+            rest.execute(path, HttpMethod.GET, request -> request.getHeaders().addAll(headers),
+                    shareitServerResponse -> {
+                        response.setStatus(shareitServerResponse.getRawStatusCode());
+                        MediaType contentType = shareitServerResponse.getHeaders().getContentType();
+                        if (contentType != null) {
+                            response.setContentType(contentType.toString());
+                        }
+                        copyFlushing(shareitServerResponse.getBody(), response.getOutputStream());
+                        return null;
+                    }, parameters != null ? parameters : Map.of());
+        } catch (HttpStatusCodeException e) {
+            response.setStatus(e.getRawStatusCode());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
+    }
+
+    /*
+     * Открывает долгий потоковый ответ сервера через streamRest. Соединение с сервером устанавливается сразу,
+     * чтобы передать клиенту статус ответа, а копирование тела выполняется асинхронно и не занимает поток Tomcat.
+     */
+    protected ResponseEntity<StreamingResponseBody> openStream(String path, Long userId) throws IOException {
+        if (streamRest == null) {
+            throw new IllegalStateException("Клиент не настроен для потоковых ответов");
+        }
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setAccept(List.of(MediaType.ALL));
+        ClientHttpRequest request = streamRest.getRequestFactory()
+                .createRequest(streamRest.getUriTemplateHandler().expand(path), HttpMethod.GET);
+        request.getHeaders().addAll(headers);
+        ClientHttpResponse shareitServerResponse = request.execute();
+
+        if (!shareitServerResponse.getStatusCode().is2xxSuccessful()) {
+            byte[] body;
+            try (shareitServerResponse) {
+                body = StreamUtils.copyToByteArray(shareitServerResponse.getBody());
+            }
+            return ResponseEntity.status(shareitServerResponse.getRawStatusCode())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> out.write(body));
+        }
+
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(shareitServerResponse.getRawStatusCode());
+        MediaType contentType = shareitServerResponse.getHeaders().getContentType();
+        if (contentType != null) {
+            responseBuilder.contentType(contentType);
+        }
+        return responseBuilder.body(out -> {
+            try (shareitServerResponse) {
+                out.flush();
+                copyFlushing(shareitServerResponse.getBody(), out);
+            }
+        });
+    }
+
+    private void copyFlushing(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            out.flush();
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
@@ -0,0 +1,68 @@
+package ru.practicum.gateway.client;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/*
+ * Отдельный пул соединений и потоков для долгих потоковых ответов сервера. Каждый открытый поток занимает
+ * соединение на все время подписки, поэтому он не должен делить пул с обычными запросами: когда соединения
+ * потоков закончатся, новая подписка дождется свободного соединения не дольше connection-request-timeout
+ * и получит 503. Ответ копируется в потоках streamTaskExecutor, а не в потоках Tomcat.
+ */
+@Configuration
+public class StreamClientConfig implements WebMvcConfigurer {
+
+    private final int maxConnections;
+    private final Duration connectionRequestTimeout;
+    private final Duration timeout;
+
+    public StreamClientConfig(@Value("${shareit-server.stream.max-connections:50}") int maxConnections,
+                              @Value("${shareit-server.stream.connection-request-timeout:5s}")
+                              Duration connectionRequestTimeout,
+                              @Value("${shareit-server.stream.timeout:31m}") Duration timeout) {
+        this.maxConnections = maxConnections;
+        this.connectionRequestTimeout = connectionRequestTimeout;
+        this.timeout = timeout;
+    }
+
+    @Bean
+    public HttpComponentsClientHttpRequestFactory streamRequestFactory() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout((int) connectionRequestTimeout.toMillis())
+                .build();
+        return new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .build());
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor streamTaskExecutor() {
+        // потоков столько же, сколько соединений, поэтому копирование принятого потока не ждет в очереди
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConnections);
+        executor.setMaxPoolSize(maxConnections);
+        executor.setThreadNamePrefix("stream-");
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamTaskExecutor());
+        configurer.setDefaultTimeout(timeout.toMillis());
+    }
+
+}
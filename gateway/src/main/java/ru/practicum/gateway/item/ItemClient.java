@@ -11,6 +11,10 @@ import ru.practicum.gateway.client.BaseClient;
 import ru.practicum.gateway.item.dto.CommentDto;
 import ru.practicum.gateway.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -32,6 +36,10 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> saveItems(Long userId, List<ItemDto> itemDtos) {
+        return post("/batch", userId, itemDtos);
+    }
+
     public ResponseEntity<Object> getAllByUserId(Long userId, Long from, Long size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
@@ -40,6 +48,10 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
+    public void exportByUserId(Long userId, HttpServletResponse response) throws IOException {
+        stream("/export", userId, null, response);
+    }
+
     public ResponseEntity<Object> getById(Long userId, Long id) {
         return get("/" + id, userId);
     }
@@ -61,6 +73,37 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> suggestItemNames(Long userId, String prefix, Long size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        return get("/suggest?prefix={prefix}&size={size}", userId, parameters);
+    }
+
+    public void exportSearch(Long userId, String text, HttpServletResponse response) throws IOException {
+        stream("/search/export?text={text}", userId, Map.of("text", text), response);
+    }
+
+    public ResponseEntity<Object> getAvailability(Long userId, Long id, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from.toString(),
+                "to", to.toString()
+        );
+        return get("/" + id + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getComments(Long userId, Long id, Long after, Long size) {
+        if (after == null) {
+            return get("/" + id + "/comments?size={size}", userId, Map.of("size", size));
+        }
+        Map<String, Object> parameters = Map.of(
+                "after", after,
+                "size", size
+        );
+        return get("/" + id + "/comments?after={after}&size={size}", userId, parameters);
+    }
+
     public ResponseEntity<Object> saveComment(Long userId, Long id, CommentDto commentDto) {
         return post("/" + id + "/comment", userId, commentDto);
     }
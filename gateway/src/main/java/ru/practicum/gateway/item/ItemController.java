@@ -2,6 +2,7 @@ package ru.practicum.gateway.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -10,9 +11,18 @@ import ru.practicum.gateway.item.dto.CommentDto;
 import ru.practicum.gateway.item.dto.ItemDto;
 import ru.practicum.gateway.validation.OnCreate;
 
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import javax.validation.groups.Default;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 @Controller
 @Validated
@@ -30,6 +40,17 @@ public class ItemController {
         return itemClient.saveItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    @Validated({OnCreate.class, Default.class})
+    public ResponseEntity<Object> saveNewItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestBody
+                                               @NotEmpty(message = "Список вещей не должен быть пустым")
+                                               @Size(max = 1000, message = "Не более 1000 вещей за раз")
+                                               List<@Valid ItemDto> itemDtos) {
+        log.info("Запрос на создание {} новых вещей", itemDtos.size());
+        return itemClient.saveItems(userId, itemDtos);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getAllItemsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
                                              @RequestParam(defaultValue = "0")
@@ -42,6 +63,12 @@ public class ItemController {
         return itemClient.getAllByUserId(userId, from, size);
     }
 
+    @GetMapping("/export")
+    public void exportItemsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                    HttpServletResponse response) throws IOException {
+        log.info("Запрос на выгрузку всех вещей пользователя с id = {}", userId);
+        itemClient.exportByUserId(userId, response);
+    }
 
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getItem(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable("itemId") Long id) {
@@ -78,6 +105,64 @@ public class ItemController {
         return itemClient.searchItem(userId, text, from, size);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItemNames(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @RequestParam String prefix,
+                                                   @RequestParam(defaultValue = "10")
+                                                   @Positive(message = "Параметр 'size' должен быть больше 0")
+                                                   @Max(value = 50,
+                                                           message = "Параметр 'size' должен быть не больше 50")
+                                                   Long size) {
+        if (prefix.isBlank()) {
+            return ResponseEntity.ok(Collections.emptyList());
+        }
+        log.info("Запрос подсказок по названию вещи, префикс = \"{}\"", prefix);
+        return itemClient.suggestItemNames(userId, prefix, size);
+    }
+
+    @GetMapping("/search/export")
+    public void exportSearchItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                 @RequestParam String text,
+                                 HttpServletResponse response) throws IOException {
+        if (text.isBlank()) {
+            response.setContentType("application/x-ndjson");
+            return;
+        }
+        log.info("Запрос на выгрузку результатов поиска вещи, текст = \"{}\"", text);
+        itemClient.exportSearch(userId, text, response);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getItemAvailability(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @PathVariable("itemId") Long id,
+                                                      @RequestParam
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime from,
+                                                      @RequestParam
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("Конец периода раньше или равен его началу");
+        }
+        log.info("Запрос на получение свободных интервалов вещи с id = {} с {} по {}", id, from, to);
+        return itemClient.getAvailability(userId, id, from, to);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @PathVariable("itemId") Long id,
+                                              @RequestParam(required = false)
+                                              @Positive(message = "Параметр 'after' должен быть больше 0")
+                                              Long after,
+                                              @RequestParam(defaultValue = "10")
+                                              @Positive(message = "Параметр 'size' должен быть больше 0")
+                                              @Max(value = 100,
+                                                      message = "Параметр 'size' должен быть не больше 100")
+                                              Long size) {
+        log.info("Запрос на получение комментариев к вещи с id = {}, после комментария с id = {}", id, after);
+        return itemClient.getComments(userId, id, after, size);
+    }
+
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> saveNewComment(@RequestHeader("X-Sharer-User-Id") Long userId,
                                      @PathVariable("itemId") Long id,
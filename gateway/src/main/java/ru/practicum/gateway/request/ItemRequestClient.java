@@ -6,10 +6,12 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.gateway.client.BaseClient;
 import ru.practicum.gateway.request.dto.ItemRequestDto;
 
+import java.io.IOException;
 import java.util.Map;
 
 @Service
@@ -18,11 +20,16 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             HttpComponentsClientHttpRequestFactory streamRequestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .build(),
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .requestFactory(() -> streamRequestFactory)
                         .build()
         );
     }
@@ -35,16 +42,27 @@ public class ItemRequestClient extends BaseClient {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId, Long from, Long size) {
+    public ResponseEntity<Object> getAllRequests(Long userId, Long from, Long size, String after) {
+        if (after == null) {
+            Map<String, Object> parameters = Map.of(
+                    "from", from,
+                    "size", size
+            );
+            return get("/all?from={from}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
+                "size", size,
+                "after", after
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return get("/all?size={size}&after={after}", userId, parameters);
     }
 
     public ResponseEntity<Object> getById(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
 
+    public ResponseEntity<StreamingResponseBody> streamRequests(Long userId) throws IOException {
+        return openStream("/stream", userId);
+    }
+
 }
@@ -6,12 +6,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.gateway.request.dto.ItemRequestDto;
 import ru.practicum.gateway.validation.OnCreate;
 
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
 
 @Controller
 @Slf4j
@@ -43,9 +45,17 @@ public class ItemRequestController {
                                                Long from,
                                                @RequestParam(defaultValue = "10")
                                                @Positive(message = "Параметр 'size' должен быть больше 0")
-                                                     Long size) {
+                                                     Long size,
+                                               @RequestParam(required = false) String after) {
         log.info("Получение списка запросов других пользователей");
-        return itemRequestClient.getAllRequests(userId, from, size);
+        return itemRequestClient.getAllRequests(userId, from, size, after);
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamRequests(@RequestHeader("X-Sharer-User-Id") Long userId)
+            throws IOException {
+        log.info("Подписка пользователя с id = {} на новые запросы других пользователей", userId);
+        return itemRequestClient.streamRequests(userId);
     }
 
     @GetMapping("/{requestId}")
@@ -0,0 +1,139 @@
+package ru.practicum.gateway.request;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+ * Шлюз проксирует запросы на заглушку сервера: поток /requests/stream держится открытым до конца теста.
+ * У Tomcat всего два рабочих потока, а потоков подписки открывается три, поэтому обычный запрос проходит,
+ * только если подписки не занимают ни потоки Tomcat, ни общий пул соединений с сервером.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=2",
+        "server.tomcat.threads.min-spare=2",
+        "shareit-server.stream.max-connections=3",
+        "shareit-server.stream.connection-request-timeout=200ms"
+})
+class ItemRequestStreamTest {
+
+    private static final int STREAMS = 3;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final HttpServer shareitServer = startShareitServer();
+    private static volatile CountDownLatch streamsClosed = new CountDownLatch(1);
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    @DynamicPropertySource
+    static void shareitServerUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + shareitServer.getAddress().getPort());
+    }
+
+    @AfterEach
+    void closeStreams() {
+        streamsClosed.countDown();
+        streamsClosed = new CountDownLatch(1);
+    }
+
+    @AfterAll
+    static void stopShareitServer() {
+        shareitServer.stop(0);
+    }
+
+    @Test
+    @DisplayName("Обычные запросы проходят, пока открыты потоки новых запросов")
+    void getOwnRequests_whenStreamsOpen_thenAnswered() throws Exception {
+        List<InputStream> streams = new ArrayList<>();
+        for (int i = 0; i < STREAMS; i++) {
+            HttpResponse<InputStream> stream = httpClient.send(request("/requests/stream"),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            assertEquals(200, stream.statusCode());
+            assertEquals("event:request",
+                    new BufferedReader(new InputStreamReader(stream.body(), StandardCharsets.UTF_8)).readLine());
+            streams.add(stream.body());
+        }
+
+        HttpResponse<String> ownRequests = httpClient.send(request("/requests"), HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> extraStream = httpClient.send(request("/requests/stream"),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, ownRequests.statusCode());
+        assertEquals("[]", ownRequests.body());
+        assertEquals(503, extraStream.statusCode());
+
+        for (InputStream stream : streams) {
+            stream.close();
+        }
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("X-Sharer-User-Id", "1")
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private static HttpServer startShareitServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/requests/stream", exchange -> {
+                exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write("event:request\ndata:{}\n\n".getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    streamsClosed.await(REQUEST_TIMEOUT.toSeconds() * 2, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            server.createContext("/requests", exchange -> {
+                byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
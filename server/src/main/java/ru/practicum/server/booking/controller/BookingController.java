@@ -2,10 +2,14 @@ package ru.practicum.server.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.server.booking.dto.BookingDecisionDto;
 import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingResponseDto;
+import ru.practicum.server.booking.dto.BookingSummaryDto;
 import ru.practicum.server.booking.service.BookingService;
+import ru.practicum.server.pagination.PageCursor;
 
 import java.util.List;
 
@@ -33,6 +37,27 @@ public class BookingController {
         return bookingService.approveBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/bulk")
+    public List<BookingDecisionDto> approveBookings(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                    @RequestParam Boolean approved,
+                                                    @RequestBody List<Integer> bookingIds) {
+        log.info("Запрос на подтверждение или отклонение {} бронирований владельцем с id = {}",
+                bookingIds.size(), userId);
+        return bookingService.approveBookings(userId, bookingIds, approved);
+    }
+
+    @GetMapping("/summary")
+    public BookingSummaryDto getBookingsSummaryByUser(@RequestHeader("X-Sharer-User-Id") Integer userId) {
+        log.info("Запрос на получение количества бронирований пользователя с id = {} по состояниям", userId);
+        return bookingService.getSummaryByUser(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getBookingsSummaryByItemsOwner(@RequestHeader("X-Sharer-User-Id") Integer userId) {
+        log.info("Запрос на получение количества бронирований вещей владельца с id = {} по состояниям", userId);
+        return bookingService.getSummaryByItemsOwner(userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingResponseDto getBookingById(@RequestHeader("X-Sharer-User-Id") Integer userId,
                                              @PathVariable Integer bookingId) {
@@ -41,24 +66,39 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingResponseDto> getBookingsByUser(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                                      @RequestParam(defaultValue = "ALL") String state,
-                                                      @RequestParam(defaultValue = "0")
-                                                      Integer from,
-                                                      @RequestParam(defaultValue = "10")
-                                                      Integer size) {
+    public ResponseEntity<List<BookingResponseDto>> getBookingsByUser(
+            @RequestHeader("X-Sharer-User-Id") Integer userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String after) {
         log.info("Запрос на получение списка бронирований пользователя с id = {}", userId);
-        return bookingService.getByUser(userId, state, from, size);
+        List<BookingResponseDto> bookings = after == null
+                ? bookingService.getByUser(userId, state, from, size)
+                : bookingService.getByUserAfter(userId, state, after, size);
+        return toPageResponse(bookings, size);
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getBookingsByItemsOwner(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                                            @RequestParam(defaultValue = "ALL") String state,
-                                                            @RequestParam(defaultValue = "0")
-                                                            Integer from,
-                                                            @RequestParam(defaultValue = "10")
-                                                            Integer size) {
+    public ResponseEntity<List<BookingResponseDto>> getBookingsByItemsOwner(
+            @RequestHeader("X-Sharer-User-Id") Integer userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String after) {
         log.info("Запрос на получение списка бронирований вещей владельцем с id = {}", userId);
-        return bookingService.getByItemsOwner(userId, state, from, size);
+        List<BookingResponseDto> bookings = after == null
+                ? bookingService.getByItemsOwner(userId, state, from, size)
+                : bookingService.getByItemsOwnerAfter(userId, state, after, size);
+        return toPageResponse(bookings, size);
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> toPageResponse(List<BookingResponseDto> bookings, Integer size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            BookingResponseDto last = bookings.get(bookings.size() - 1);
+            response.header(PageCursor.NEXT_CURSOR_HEADER, new PageCursor(last.getStart(), last.getId()).encode());
+        }
+        return response.body(bookings);
     }
 }
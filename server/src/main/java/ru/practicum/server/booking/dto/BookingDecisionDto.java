@@ -0,0 +1,19 @@
+package ru.practicum.server.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.server.booking.model.BookingDecisionOutcome;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingDecisionDto {
+
+    private Integer bookingId;
+
+    private BookingDecisionOutcome outcome;
+
+}
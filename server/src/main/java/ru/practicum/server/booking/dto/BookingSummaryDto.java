@@ -0,0 +1,26 @@
+package ru.practicum.server.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingSummaryDto {
+
+    private Long all;
+
+    private Long current;
+
+    private Long past;
+
+    private Long future;
+
+    private Long waiting;
+
+    private Long rejected;
+
+}
@@ -0,0 +1,8 @@
+package ru.practicum.server.booking.model;
+
+public enum BookingDecisionOutcome {
+    APPROVED, /*бронирование подтверждено*/
+    REJECTED, /*бронирование отклонено*/
+    NOT_FOUND, /*бронирование не найдено или вещь принадлежит другому пользователю*/
+    ALREADY_PROCESSED /*бронирование уже было подтверждено или отклонено*/
+}
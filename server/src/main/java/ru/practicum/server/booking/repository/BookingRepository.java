@@ -1,23 +1,146 @@
 package ru.practicum.server.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.server.booking.dto.BookingSummaryDto;
 import ru.practicum.server.booking.model.Booking;
 import ru.practicum.server.booking.model.BookingStatus;
-import ru.practicum.server.item.model.Item;
 import ru.practicum.server.user.model.User;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Integer> {
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
+public interface BookingRepository extends JpaRepository<Booking, Integer>, BookingRepositoryCustom {
+
+    String SUMMARY_SELECT = "select new ru.practicum.server.booking.dto.BookingSummaryDto(" +
+            "count(b), " +
+            "coalesce(sum(case when b.start < :now and b.end > :now then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.end < :now then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.start > :now then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.status = :waiting then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.status = :rejected then 1 else 0 end), 0)) ";
+
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByBooker(User user, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBookerAndStartBeforeAndEndAfter(User booker, LocalDateTime start, LocalDateTime end,
+                                                        Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBookerAndEndBefore(User booker, LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBookerAndStartAfter(User booker, LocalDateTime start, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBookerAndStatus(User booker, BookingStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByItem_Owner(User owner, Pageable pageable);
 
-    List<Booking> findAllByItemInAndStatusOrderByStartAsc(List<Item> items, BookingStatus status);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByItem_OwnerAndStartBeforeAndEndAfter(User owner, LocalDateTime start, LocalDateTime end,
+                                                            Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByItem_OwnerAndEndBefore(User owner, LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByItem_OwnerAndStartAfter(User owner, LocalDateTime start, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByItem_OwnerAndStatus(User owner, BookingStatus status, Pageable pageable);
+
+    @Query(value = "select id, start_date, end_date, item_id, booker_id, status, version " +
+            "from (select b.*, row_number() over (partition by b.item_id order by b.start_date desc, b.id desc) rn " +
+            "      from bookings as b " +
+            "      where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_date < :now) last_booking " +
+            "where rn = 1 " +
+            "union all " +
+            "select id, start_date, end_date, item_id, booker_id, status, version " +
+            "from (select b.*, row_number() over (partition by b.item_id order by b.start_date, b.id) rn " +
+            "      from bookings as b " +
+            "      where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_date > :now) next_booking " +
+            "where rn = 1",
+            nativeQuery = true)
+    List<Booking> findLastAndNextApprovedByItemIdIn(@Param("itemIds") Collection<Integer> itemIds,
+                                                    @Param("now") LocalDateTime now);
+
+    List<Booking> findAllByItem_IdAndStatusInAndEndAfter(Integer itemId, Collection<BookingStatus> statuses,
+                                                         LocalDateTime end);
+
+    @Query("select distinct b.item.id " +
+            "from Booking as b " +
+            "where b.booker.id = :bookerId and b.status in :statuses and b.end > :now")
+    List<Integer> findActiveItemIdsByBookerId(@Param("bookerId") Integer bookerId,
+                                              @Param("statuses") Collection<BookingStatus> statuses,
+                                              @Param("now") LocalDateTime now);
+
+    @Query("select count(b) > 0 " +
+            "from Booking as b " +
+            "where b.item.id = :itemId and b.status in :statuses and " +
+            "b.start < :end and b.end > :start")
+    boolean existsOverlapping(@Param("itemId") Integer itemId, @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end, @Param("statuses") Collection<BookingStatus> statuses);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "100"))
+    @Query("select b " +
+            "from Booking as b " +
+            "where b.item.id = :itemId and b.status in :statuses and " +
+            "b.end > :from and b.start < :to " +
+            "order by b.start")
+    Stream<Booking> streamByItemIdWithin(@Param("itemId") Integer itemId,
+                                         @Param("statuses") Collection<BookingStatus> statuses,
+                                         @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = {"item"})
+    List<Booking> findLockedByIdInOrderByIdAsc(Collection<Integer> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking as b " +
+            "set b.status = :status, b.version = b.version + 1 " +
+            "where b.id in :ids and b.status = :current and " +
+            "b.item.id in (select i.id from Item as i where i.owner.id = :ownerId)")
+    int updateStatusByItemsOwner(@Param("ownerId") Integer ownerId, @Param("ids") Collection<Integer> ids,
+                                 @Param("current") BookingStatus current, @Param("status") BookingStatus status);
+
+    @Query(SUMMARY_SELECT +
+            "from Booking as b " +
+            "where b.booker.id = :bookerId")
+    BookingSummaryDto getSummaryByBooker(@Param("bookerId") Integer bookerId, @Param("now") LocalDateTime now,
+                                         @Param("waiting") BookingStatus waiting,
+                                         @Param("rejected") BookingStatus rejected);
+
+    @Query(SUMMARY_SELECT +
+            "from Booking as b " +
+            "where b.item.owner.id = :ownerId")
+    BookingSummaryDto getSummaryByItemsOwner(@Param("ownerId") Integer ownerId, @Param("now") LocalDateTime now,
+                                             @Param("waiting") BookingStatus waiting,
+                                             @Param("rejected") BookingStatus rejected);
+
+    @Query("select distinct b.item.id " +
+            "from Booking as b " +
+            "where b.booker.id = :bookerId and b.status <> :status and b.start < :now")
+    List<Integer> findRentedItemIds(@Param("bookerId") Integer bookerId, @Param("status") BookingStatus status,
+                                    @Param("now") LocalDateTime now);
 
-    boolean existsBookingByItemAndBookerAndStatusNotAndStartBefore(Item item, User booker,
-                                                                   BookingStatus status, LocalDateTime start);
+    @Query("select min(b.start) " +
+            "from Booking as b " +
+            "where b.booker.id = :bookerId and b.status <> :status and b.start >= :now")
+    LocalDateTime findNextRentalStart(@Param("bookerId") Integer bookerId, @Param("status") BookingStatus status,
+                                      @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,18 @@
+package ru.practicum.server.booking.repository;
+
+import ru.practicum.server.booking.model.Booking;
+import ru.practicum.server.booking.model.BookingState;
+import ru.practicum.server.pagination.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    List<Booking> findByBookerAfter(Integer bookerId, BookingState state, LocalDateTime now,
+                                    PageCursor after, int size);
+
+    List<Booking> findByItemsOwnerAfter(Integer ownerId, BookingState state, LocalDateTime now,
+                                        PageCursor after, int size);
+
+}
@@ -0,0 +1,90 @@
+package ru.practicum.server.booking.repository;
+
+import ru.practicum.server.booking.model.Booking;
+import ru.practicum.server.booking.model.BookingState;
+import ru.practicum.server.booking.model.BookingStatus;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.pagination.PageCursor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findByBookerAfter(Integer bookerId, BookingState state, LocalDateTime now,
+                                           PageCursor after, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        fetchRelations(booking);
+        Predicate byBooker = cb.equal(booking.get("booker").get("id"), bookerId);
+        return findAfter(cb, query, booking, byBooker, state, now, after, size);
+    }
+
+    @Override
+    public List<Booking> findByItemsOwnerAfter(Integer ownerId, BookingState state, LocalDateTime now,
+                                               PageCursor after, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Predicate byOwner = cb.equal(fetchRelations(booking).get("owner").get("id"), ownerId);
+        return findAfter(cb, query, booking, byOwner, state, now, after, size);
+    }
+
+    private List<Booking> findAfter(CriteriaBuilder cb, CriteriaQuery<Booking> query, Root<Booking> booking,
+                                    Predicate byUser, BookingState state, LocalDateTime now,
+                                    PageCursor after, int size) {
+        Path<LocalDateTime> start = booking.get("start");
+        Path<Integer> id = booking.get("id");
+        Predicate afterCursor = cb.or(
+                cb.lessThan(start, after.getTimestamp()),
+                cb.and(cb.equal(start, after.getTimestamp()), cb.lessThan(id, after.getId())));
+
+        query.select(booking)
+                .where(byUser, getStatePredicate(cb, booking, state, now), afterCursor)
+                .orderBy(cb.desc(start), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Join<Booking, Item> fetchRelations(Root<Booking> booking) {
+        booking.fetch("booker");
+        return (Join<Booking, Item>) booking.<Booking, Item>fetch("item");
+    }
+
+    private Predicate getStatePredicate(CriteriaBuilder cb, Root<Booking> booking, BookingState state,
+                                        LocalDateTime now) {
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        switch (state) {
+            case CURRENT:
+                return cb.and(cb.lessThan(start, now), cb.greaterThan(end, now));
+            case PAST:
+                return cb.lessThan(end, now);
+            case FUTURE:
+                return cb.greaterThan(start, now);
+            case WAITING:
+                return cb.equal(booking.get("status"), BookingStatus.WAITING);
+            case REJECTED:
+                return cb.equal(booking.get("status"), BookingStatus.REJECTED);
+            default:
+                return cb.conjunction();
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+package ru.practicum.server.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.server.booking.model.Booking;
+import ru.practicum.server.booking.model.BookingStatus;
+import ru.practicum.server.booking.repository.BookingRepository;
+import ru.practicum.server.item.event.ItemChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Деревья интервалов незавершенных бронирований вещей. Дерево загружается при первой проверке и обновляется
+ * после фиксации транзакций бронирования; бронирования, удаленные каскадно вместе с вещью или пользователем,
+ * сбрасывают дерево вещи. Каждое изменение увеличивает версию вещи, поэтому дерево, прочитанное до изменения,
+ * в кэш не попадает. Размер и время жизни кэша ограничены: завершившиеся бронирования уходят при перезагрузке.
+ */
+@Component
+@Slf4j
+public class BookingIntervalIndex {
+
+    public static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private static final int VERSION_STRIPES = 1024;
+
+    private final BookingRepository bookingRepository;
+
+    private final Cache<Integer, BookingIntervalTree> itemIntervals;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public BookingIntervalIndex(BookingRepository bookingRepository, MeterRegistry meterRegistry,
+                                @Value("${shareit.booking.interval-index.cache-size:10000}") long maximumSize,
+                                @Value("${shareit.booking.interval-index.cache-ttl:1h}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.itemIntervals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, itemIntervals, "bookingIntervals");
+    }
+
+    public boolean hasOverlap(Integer itemId, LocalDateTime start, LocalDateTime end) {
+        BookingIntervalTree intervals = itemIntervals.getIfPresent(itemId);
+        while (intervals == null) {
+            long version = version(itemId);
+            BookingIntervalTree loaded = load(itemId);
+            intervals = itemIntervals.asMap().compute(itemId, (id, current) -> current != null ? current :
+                    version(id) == version ? loaded : null);
+        }
+        return intervals.overlaps(start, end);
+    }
+
+    public void add(Booking booking) {
+        Integer itemId = booking.getItem().getId();
+        Integer bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        afterCommit(() -> {
+            versions.incrementAndGet(stripe(itemId));
+            itemIntervals.asMap().computeIfPresent(itemId, (id, intervals) -> {
+                intervals.add(bookingId, start, end);
+                return intervals;
+            });
+        });
+    }
+
+    public void remove(Booking booking) {
+        Integer itemId = booking.getItem().getId();
+        Integer bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        afterCommit(() -> {
+            versions.incrementAndGet(stripe(itemId));
+            itemIntervals.asMap().computeIfPresent(itemId, (id, intervals) -> {
+                intervals.remove(bookingId, start);
+                return intervals;
+            });
+        });
+    }
+
+    /*
+     * Вызывается до удаления пользователя: его бронирования удаляются каскадно, и деревья вещей,
+     * которые он бронировал, сбрасываются после фиксации транзакции.
+     */
+    public void evictBookedBy(Integer bookerId) {
+        List<Integer> itemIds = bookingRepository.findActiveItemIdsByBookerId(bookerId, ACTIVE_STATUSES,
+                LocalDateTime.now());
+        afterCommit(() -> itemIds.forEach(this::evict));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.getCurrent() == null) {
+            evict(event.getPrevious().getId());
+        }
+    }
+
+    private void evict(Integer itemId) {
+        versions.incrementAndGet(stripe(itemId));
+        itemIntervals.invalidate(itemId);
+    }
+
+    private BookingIntervalTree load(Integer itemId) {
+        BookingIntervalTree intervals = new BookingIntervalTree();
+        bookingRepository.findAllByItem_IdAndStatusInAndEndAfter(itemId, ACTIVE_STATUSES, LocalDateTime.now())
+                .forEach(booking -> intervals.add(booking.getId(), booking.getStart(), booking.getEnd()));
+        log.debug("Загружено {} незавершенных бронирований вещи с id = {}", intervals.size(), itemId);
+        return intervals;
+    }
+
+    private long version(Integer itemId) {
+        return versions.get(stripe(itemId));
+    }
+
+    private int stripe(Integer itemId) {
+        return Math.floorMod(itemId, VERSION_STRIPES);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+}
@@ -0,0 +1,164 @@
+package ru.practicum.server.booking.service;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/*
+ * AVL-дерево интервалов [start, end) одной вещи. Узлы упорядочены по (start, bookingId),
+ * каждый узел хранит максимальный end своего поддерева, что позволяет искать пересечение за O(log n).
+ */
+class BookingIntervalTree {
+
+    private static final Comparator<Node> ORDER = Comparator.<Node, LocalDateTime>comparing(node -> node.start)
+            .thenComparing(node -> node.bookingId);
+
+    private Node root;
+
+    private int size;
+
+    synchronized void add(Integer bookingId, LocalDateTime start, LocalDateTime end) {
+        root = insert(root, new Node(bookingId, start, end));
+    }
+
+    synchronized void remove(Integer bookingId, LocalDateTime start) {
+        root = delete(root, new Node(bookingId, start, start));
+    }
+
+    synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && start.isBefore(node.end)) {
+                return true;
+            }
+            node = node.left != null && node.left.maxEnd.isAfter(start) ? node.left : node.right;
+        }
+        return false;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            size++;
+            return added;
+        }
+        int cmp = ORDER.compare(added, node);
+        if (cmp < 0) {
+            node.left = insert(node.left, added);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, added);
+        } else {
+            node.end = added.end;
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, Node removed) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = ORDER.compare(removed, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, removed);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, removed);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private Node deleteMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(Node node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.right.maxEnd;
+        }
+    }
+
+    private int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static class Node {
+
+        private final Integer bookingId;
+        private final LocalDateTime start;
+        private LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        Node(Integer bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+
+    }
+
+}
@@ -1,7 +1,9 @@
 package ru.practicum.server.booking.service;
 
+import ru.practicum.server.booking.dto.BookingDecisionDto;
 import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingResponseDto;
+import ru.practicum.server.booking.dto.BookingSummaryDto;
 
 import java.util.List;
 
@@ -11,11 +13,21 @@ public interface BookingService {
 
     BookingResponseDto approveBooking(Integer bookerId, Integer bookingId, Boolean approved);
 
+    List<BookingDecisionDto> approveBookings(Integer ownerId, List<Integer> bookingIds, Boolean approved);
+
     BookingResponseDto getById(Integer bookerId, Integer bookingId);
 
     List<BookingResponseDto> getByUser(Integer userId, String state, Integer from, Integer size);
 
     List<BookingResponseDto> getByItemsOwner(Integer userId, String state, Integer from, Integer size);
 
+    List<BookingResponseDto> getByUserAfter(Integer userId, String state, String after, Integer size);
+
+    List<BookingResponseDto> getByItemsOwnerAfter(Integer userId, String state, String after, Integer size);
+
+    BookingSummaryDto getSummaryByUser(Integer userId);
+
+    BookingSummaryDto getSummaryByItemsOwner(Integer userId);
+
 }
 
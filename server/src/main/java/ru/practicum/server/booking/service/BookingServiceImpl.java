@@ -2,30 +2,46 @@ package ru.practicum.server.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.server.booking.dto.BookingDecisionDto;
 import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingMapper;
 import ru.practicum.server.booking.dto.BookingResponseDto;
+import ru.practicum.server.booking.dto.BookingSummaryDto;
 import ru.practicum.server.booking.model.Booking;
+import ru.practicum.server.booking.model.BookingDecisionOutcome;
 import ru.practicum.server.booking.model.BookingState;
 import ru.practicum.server.booking.model.BookingStatus;
 import ru.practicum.server.booking.repository.BookingRepository;
+import ru.practicum.server.config.CacheConfig;
+import ru.practicum.server.exception.ConflictException;
 import ru.practicum.server.exception.NotFoundException;
 import ru.practicum.server.exception.UnknownBookingStateException;
 import ru.practicum.server.exception.ValidationException;
 import ru.practicum.server.item.model.Item;
 import ru.practicum.server.item.repository.ItemRepository;
+import ru.practicum.server.item.service.ItemSummaryService;
+import ru.practicum.server.pagination.PageCursor;
 import ru.practicum.server.user.model.User;
 import ru.practicum.server.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 @Transactional(readOnly = true)
@@ -33,9 +49,18 @@ import java.util.stream.Stream;
 @Slf4j
 public class BookingServiceImpl implements BookingService {
 
+    private static final Sort BOOKING_ORDER = Sort.by("start").descending().and(Sort.by("id").descending());
+    private static final String NO_OVERLAP_CONSTRAINT = "bookings_no_overlap";
+
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final RentalHistoryIndex rentalHistoryIndex;
+    private final ItemSummaryService itemSummaryService;
+
+    @Value("${shareit.booking.serialize-per-item:false}")
+    private boolean serializePerItem;
 
     @Override
     @Transactional
@@ -48,7 +73,10 @@ public class BookingServiceImpl implements BookingService {
 
         Integer itemId = bookingDto.getItemId();
 
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> {
+        Optional<Item> foundItem = serializePerItem
+                ? itemRepository.findLockedById(itemId)
+                : itemRepository.findById(itemId);
+        Item item = foundItem.orElseThrow(() -> {
                     log.warn("Вещь с id = {} не найдена", itemId);
                     return new NotFoundException(String.format("Вещь с id = %d не найдена", itemId));
                 }
@@ -69,8 +97,24 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Время окончания раньше или равно времени начала бронирования");
         }
 
-        Booking booking = BookingMapper.toBooking(bookingDto, item, booker);
-        return BookingMapper.toBookingResponseDto(bookingRepository.save(booking));
+        if (bookingIntervalIndex.hasOverlap(itemId, bookingDto.getStart(), bookingDto.getEnd()) ||
+                serializePerItem && bookingRepository.existsOverlapping(itemId, bookingDto.getStart(),
+                        bookingDto.getEnd(), BookingIntervalIndex.ACTIVE_STATUSES)) {
+            throw getOverlapException(itemId);
+        }
+
+        Booking booking;
+        try {
+            booking = bookingRepository.saveAndFlush(BookingMapper.toBooking(bookingDto, item, booker));
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) {
+                throw e;
+            }
+            throw getOverlapException(itemId);
+        }
+        bookingIntervalIndex.add(booking);
+        rentalHistoryIndex.add(booking);
+        return BookingMapper.toBookingResponseDto(booking);
     }
 
     @Override
@@ -93,8 +137,67 @@ public class BookingServiceImpl implements BookingService {
         }
 
         booking.setStatus(isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        try {
+            booking = bookingRepository.saveAndFlush(booking);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.warn("Бронирование с id = {} было изменено параллельным запросом", bookingId);
+            throw new ConflictException(String.format("Бронирование с id = %d было изменено параллельным запросом",
+                    bookingId));
+        }
+        if (isApproved) {
+            itemSummaryService.refreshBookings(List.of(booking.getItem().getId()));
+        } else {
+            bookingIntervalIndex.remove(booking);
+            rentalHistoryIndex.remove(booking);
+        }
+
+        return BookingMapper.toBookingResponseDto(booking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingDecisionDto> approveBookings(Integer ownerId, List<Integer> bookingIds, Boolean isApproved) {
+        checkUserExists(ownerId);
+
+        Map<Integer, Booking> bookings = bookingRepository.findLockedByIdInOrderByIdAsc(bookingIds)
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Map<Integer, BookingDecisionOutcome> outcomes = new LinkedHashMap<>();
+        List<Integer> waitingIds = new ArrayList<>();
+        for (Integer bookingId : bookingIds) {
+            Booking booking = bookings.get(bookingId);
+            if (booking == null || !booking.getItem().getOwner().getId().equals(ownerId)) {
+                outcomes.put(bookingId, BookingDecisionOutcome.NOT_FOUND);
+            } else if (!booking.getStatus().equals(BookingStatus.WAITING)) {
+                outcomes.put(bookingId, BookingDecisionOutcome.ALREADY_PROCESSED);
+            } else if (!outcomes.containsKey(bookingId)) {
+                outcomes.put(bookingId, isApproved ? BookingDecisionOutcome.APPROVED : BookingDecisionOutcome.REJECTED);
+                waitingIds.add(bookingId);
+            }
+        }
 
-        return BookingMapper.toBookingResponseDto(bookingRepository.save(booking));
+        // строки заблокированы до конца транзакции, поэтому ожидающие бронирования не решит параллельный запрос
+        if (!waitingIds.isEmpty()) {
+            BookingStatus status = isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+            int updated = bookingRepository.updateStatusByItemsOwner(ownerId, waitingIds, BookingStatus.WAITING,
+                    status);
+            log.info("Владелец с id = {} изменил статус {} бронирований на {}", ownerId, updated, status);
+            if (isApproved) {
+                itemSummaryService.refreshBookings(waitingIds.stream()
+                        .map(bookingId -> bookings.get(bookingId).getItem().getId())
+                        .collect(Collectors.toSet()));
+            } else {
+                for (Integer bookingId : waitingIds) {
+                    bookingIntervalIndex.remove(bookings.get(bookingId));
+                    rentalHistoryIndex.remove(bookings.get(bookingId));
+                }
+            }
+        }
+
+        return outcomes.entrySet()
+                .stream()
+                .map(outcome -> new BookingDecisionDto(outcome.getKey(), outcome.getValue()))
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -122,10 +225,10 @@ public class BookingServiceImpl implements BookingService {
                     return new NotFoundException(String.format("Пользователь с id = %d не найден", userId));
                 }
         );
-        PageRequest page = PageRequest.of(from / size, size, Sort.by("start").descending());
-        List<Booking> userBookings = bookingRepository.findByBooker(user, page);
+        PageRequest page = PageRequest.of(from / size, size, BOOKING_ORDER);
+        List<Booking> userBookings = getBookerBookingsByState(user, bookingState, page);
 
-        return getBookingByState(userBookings, bookingState)
+        return userBookings
                 .stream()
                 .map(BookingMapper::toBookingResponseDto)
                 .collect(Collectors.toList());
@@ -139,15 +242,79 @@ public class BookingServiceImpl implements BookingService {
                     return new NotFoundException(String.format("Пользователь с id = %d не найден", userId));
                 }
         );
-        PageRequest page = PageRequest.of(from / size, size, Sort.by("start").descending());
-        List<Booking> itemOwnerBookings = bookingRepository.findByItem_Owner(user, page);
+        PageRequest page = PageRequest.of(from / size, size, BOOKING_ORDER);
+        List<Booking> itemOwnerBookings = getItemsOwnerBookingsByState(user, bookingState, page);
+
+        return itemOwnerBookings
+                .stream()
+                .map(BookingMapper::toBookingResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BookingResponseDto> getByUserAfter(Integer userId, String state, String after, Integer size) {
+        BookingState bookingState = getBookingState(state);
+        PageCursor cursor = PageCursor.decode(after);
+        User user = userRepository.findById(userId).orElseThrow(() -> {
+                    log.warn("Пользователь с id = {} не найден", userId);
+                    return new NotFoundException(String.format("Пользователь с id = %d не найден", userId));
+                }
+        );
+
+        return bookingRepository.findByBookerAfter(user.getId(), bookingState, LocalDateTime.now(), cursor, size)
+                .stream()
+                .map(BookingMapper::toBookingResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BookingResponseDto> getByItemsOwnerAfter(Integer userId, String state, String after, Integer size) {
+        BookingState bookingState = getBookingState(state);
+        PageCursor cursor = PageCursor.decode(after);
+        User user = userRepository.findById(userId).orElseThrow(() -> {
+                    log.warn("Пользователь с id = {} не найден", userId);
+                    return new NotFoundException(String.format("Пользователь с id = %d не найден", userId));
+                }
+        );
 
-        return getBookingByState(itemOwnerBookings, bookingState)
+        return bookingRepository.findByItemsOwnerAfter(user.getId(), bookingState, LocalDateTime.now(), cursor, size)
                 .stream()
                 .map(BookingMapper::toBookingResponseDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Cacheable(cacheNames = CacheConfig.BOOKER_SUMMARIES, key = "#userId")
+    public BookingSummaryDto getSummaryByUser(Integer userId) {
+        checkUserExists(userId);
+        return bookingRepository.getSummaryByBooker(userId, LocalDateTime.now(), BookingStatus.WAITING,
+                BookingStatus.REJECTED);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.OWNER_SUMMARIES, key = "#userId")
+    public BookingSummaryDto getSummaryByItemsOwner(Integer userId) {
+        checkUserExists(userId);
+        return bookingRepository.getSummaryByItemsOwner(userId, LocalDateTime.now(), BookingStatus.WAITING,
+                BookingStatus.REJECTED);
+    }
+
+    private void checkUserExists(Integer userId) {
+        if (!userRepository.existsById(userId)) {
+            log.warn("Пользователь с id = {} не найден", userId);
+            throw new NotFoundException(String.format("Пользователь с id = %d не найден", userId));
+        }
+    }
+
+    private ValidationException getOverlapException(Integer itemId) {
+        log.warn("Вещь с id = {} уже забронирована на указанное время", itemId);
+        return new ValidationException(String.format("Вещь с id = %d уже забронирована на указанное время", itemId));
+    }
+
+    private boolean isOverlapViolation(DataIntegrityViolationException e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && message.contains(NO_OVERLAP_CONSTRAINT);
+    }
 
     private BookingState getBookingState(String state) {
         try {
@@ -157,28 +324,40 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
-    private List<Booking> getBookingByState(List<Booking> bookingList, BookingState bookingState) {
+    private List<Booking> getBookerBookingsByState(User booker, BookingState bookingState, Pageable page) {
+        LocalDateTime now = LocalDateTime.now();
+        switch (bookingState) {
+            case CURRENT:
+                return bookingRepository.findByBookerAndStartBeforeAndEndAfter(booker, now, now, page);
+            case PAST:
+                return bookingRepository.findByBookerAndEndBefore(booker, now, page);
+            case FUTURE:
+                return bookingRepository.findByBookerAndStartAfter(booker, now, page);
+            case WAITING:
+                return bookingRepository.findByBookerAndStatus(booker, BookingStatus.WAITING, page);
+            case REJECTED:
+                return bookingRepository.findByBookerAndStatus(booker, BookingStatus.REJECTED, page);
+            default:
+                return bookingRepository.findByBooker(booker, page);
+        }
+    }
+
+    private List<Booking> getItemsOwnerBookingsByState(User owner, BookingState bookingState, Pageable page) {
         LocalDateTime now = LocalDateTime.now();
-        Stream<Booking> bookingStream = bookingList.stream();
         switch (bookingState) {
             case CURRENT:
-                bookingStream = bookingStream.filter(booking -> booking.getStart().isBefore(now) &&
-                        booking.getEnd().isAfter(now));
-                break;
+                return bookingRepository.findByItem_OwnerAndStartBeforeAndEndAfter(owner, now, now, page);
             case PAST:
-                bookingStream = bookingStream.filter(booking -> booking.getEnd().isBefore(now));
-                break;
+                return bookingRepository.findByItem_OwnerAndEndBefore(owner, now, page);
             case FUTURE:
-                bookingStream = bookingStream.filter(booking -> booking.getStart().isAfter(now));
-                break;
+                return bookingRepository.findByItem_OwnerAndStartAfter(owner, now, page);
             case WAITING:
-                bookingStream = bookingStream.filter(booking -> booking.getStatus().equals(BookingStatus.WAITING));
-                break;
+                return bookingRepository.findByItem_OwnerAndStatus(owner, BookingStatus.WAITING, page);
             case REJECTED:
-                bookingStream = bookingStream.filter(booking -> booking.getStatus().equals(BookingStatus.REJECTED));
-                break;
+                return bookingRepository.findByItem_OwnerAndStatus(owner, BookingStatus.REJECTED, page);
+            default:
+                return bookingRepository.findByItem_Owner(owner, page);
         }
-        return bookingStream.sorted(Comparator.comparing(Booking::getStart).reversed()).collect(Collectors.toList());
     }
 
 }
@@ -0,0 +1,126 @@
+package ru.practicum.server.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.server.booking.model.Booking;
+import ru.practicum.server.booking.model.BookingStatus;
+import ru.practicum.server.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Отсортированные id вещей, которые пользователь уже брал в аренду. Бронирование становится арендой с наступлением
+ * начала, поэтому вместе с историей запоминается начало ближайшего еще не начавшегося бронирования: до него
+ * загруженная история полна, и отсутствие вещи в массиве означает, что аренды не было. Когда это время наступает,
+ * история загружается заново. Новое и отклоненное бронирование сбрасывают историю пользователя после фиксации
+ * транзакции и увеличивают его версию: история, прочитанная до сброса, в кэш уже не попадет.
+ */
+@Component
+@Slf4j
+public class RentalHistoryIndex {
+
+    private static final int VERSION_STRIPES = 1024;
+
+    private final BookingRepository bookingRepository;
+
+    private final Cache<Integer, RentalHistory> histories;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public RentalHistoryIndex(BookingRepository bookingRepository, MeterRegistry meterRegistry,
+                              @Value("${shareit.booking.rental-history.cache-size:100000}") long maximumSize) {
+        this.bookingRepository = bookingRepository;
+        this.histories = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, histories, "rentalHistory");
+    }
+
+    public boolean hasRented(Integer bookerId, Integer itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        RentalHistory history = histories.getIfPresent(bookerId);
+        if (history == null || !history.isCompleteAt(now)) {
+            long version = version(bookerId);
+            RentalHistory loaded = load(bookerId, now);
+            histories.asMap().compute(bookerId, (id, current) -> current != null && current.isCompleteAt(now)
+                    ? current : version(id) == version ? loaded : null);
+            history = loaded;
+        }
+        return Arrays.binarySearch(history.itemIds, itemId) >= 0;
+    }
+
+    public void add(Booking booking) {
+        invalidate(booking.getBooker().getId());
+    }
+
+    public void remove(Booking booking) {
+        invalidate(booking.getBooker().getId());
+    }
+
+    private void invalidate(Integer bookerId) {
+        afterCommit(() -> {
+            // версия увеличивается до сброса, поэтому чтение, начатое раньше, не вернет историю в кэш
+            versions.incrementAndGet(stripe(bookerId));
+            histories.invalidate(bookerId);
+        });
+    }
+
+    private long version(Integer bookerId) {
+        return versions.get(stripe(bookerId));
+    }
+
+    private int stripe(Integer bookerId) {
+        return Math.floorMod(bookerId, VERSION_STRIPES);
+    }
+
+    private RentalHistory load(Integer bookerId, LocalDateTime now) {
+        int[] itemIds = bookingRepository.findRentedItemIds(bookerId, BookingStatus.REJECTED, now)
+                .stream()
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .toArray();
+        LocalDateTime nextStart = bookingRepository.findNextRentalStart(bookerId, BookingStatus.REJECTED, now);
+        log.debug("Загружено {} арендованных вещей пользователя с id = {}, история полна до {}", itemIds.length,
+                bookerId, nextStart);
+        return new RentalHistory(itemIds, nextStart);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static class RentalHistory {
+
+        private final int[] itemIds;
+        private final LocalDateTime nextStart;
+
+        private RentalHistory(int[] itemIds, LocalDateTime nextStart) {
+            this.itemIds = itemIds;
+            this.nextStart = nextStart;
+        }
+
+        private boolean isCompleteAt(LocalDateTime now) {
+            return nextStart == null || now.isBefore(nextStart);
+        }
+
+    }
+
+}
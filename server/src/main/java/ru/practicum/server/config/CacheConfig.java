@@ -0,0 +1,30 @@
+package ru.practicum.server.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String BOOKER_SUMMARIES = "bookerSummaries";
+    public static final String OWNER_SUMMARIES = "ownerSummaries";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${shareit.cache.summary-ttl:5s}") Duration summaryTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(BOOKER_SUMMARIES, OWNER_SUMMARIES);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(summaryTtl)
+                .recordStats());
+        return cacheManager;
+    }
+
+}
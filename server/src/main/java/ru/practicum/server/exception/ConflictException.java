@@ -0,0 +1,7 @@
+package ru.practicum.server.exception;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -27,6 +27,13 @@ public class ErrorHandler {
         return new ErrorResponse("Ошибка валидации.", e.getMessage());
     }
 
+    @ExceptionHandler(ConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflictException(final ConflictException e) {
+        log.warn("Конфликт изменения данных.");
+        return new ErrorResponse("Конфликт изменения данных.", e.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowableException(final Exception e) {
@@ -1,16 +1,26 @@
 package ru.practicum.server.item.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.server.item.dto.CommentDto;
 import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.dto.TimeSlotDto;
 import ru.practicum.server.item.service.CommentService;
 import ru.practicum.server.item.service.ItemService;
 import ru.practicum.server.validation.OnCreate;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 @RestController
 @Slf4j
@@ -18,8 +28,11 @@ import java.util.List;
 @RequestMapping("/items")
 public class ItemController {
 
+    private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
     private final ItemService itemService;
     private final CommentService commentService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemDto saveNewItem(@RequestHeader("X-Sharer-User-Id") int userId, @RequestBody ItemDto itemDto) {
@@ -27,6 +40,13 @@ public class ItemController {
         return itemService.saveItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public List<Integer> saveNewItems(@RequestHeader("X-Sharer-User-Id") int userId,
+                                      @RequestBody List<ItemDto> itemDtos) {
+        log.info("Запрос на создание {} новых вещей", itemDtos.size());
+        return itemService.saveItems(userId, itemDtos);
+    }
+
     @GetMapping
     public List<ItemDto> getAllItemsByUserId(@RequestHeader("X-Sharer-User-Id") int userId,
                                              @RequestParam(defaultValue = "0")
@@ -38,6 +58,15 @@ public class ItemController {
     }
 
 
+    @GetMapping("/export")
+    public void exportItemsByUserId(@RequestHeader("X-Sharer-User-Id") int userId,
+                                    HttpServletResponse response) throws IOException {
+        log.info("Запрос на выгрузку всех вещей пользователя с id = {}", userId);
+        NdjsonWriter writer = new NdjsonWriter(response);
+        itemService.exportByUserId(userId, writer);
+        writer.finish();
+    }
+
     @GetMapping("/{itemId}")
     public ItemDto getItem(@RequestHeader("X-Sharer-User-Id") int userId, @PathVariable("itemId") int id) {
         log.info("Запрос на получение вещи с id = {}", id);
@@ -68,6 +97,46 @@ public class ItemController {
         return itemService.searchItem(userId, text, from, size);
     }
 
+    @GetMapping("/suggest")
+    public List<String> suggestItemNames(@RequestHeader("X-Sharer-User-Id") int userId,
+                                         @RequestParam String prefix,
+                                         @RequestParam(defaultValue = "10")
+                                         Integer size) {
+        log.info("Запрос подсказок по названию вещи, префикс = \"{}\"", prefix);
+        return itemService.suggestNames(prefix, size);
+    }
+
+    @GetMapping("/search/export")
+    public void exportSearchItem(@RequestHeader("X-Sharer-User-Id") int userId,
+                                 @RequestParam String text,
+                                 HttpServletResponse response) throws IOException {
+        log.info("Запрос на выгрузку результатов поиска вещи, текст = \"{}\"", text);
+        NdjsonWriter writer = new NdjsonWriter(response);
+        itemService.exportSearch(text, writer);
+        writer.finish();
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<TimeSlotDto> getItemAvailability(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                 @PathVariable("itemId") int id,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                 LocalDateTime from,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                 LocalDateTime to) {
+        log.info("Запрос на получение свободных интервалов вещи с id = {} с {} по {}", id, from, to);
+        return itemService.getAvailability(id, from, to);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public List<CommentDto> getComments(@PathVariable("itemId") int id,
+                                        @RequestParam(required = false)
+                                        Integer after,
+                                        @RequestParam(defaultValue = "10")
+                                        Integer size) {
+        log.info("Запрос на получение комментариев к вещи с id = {}, после комментария с id = {}", id, after);
+        return commentService.getComments(id, after, size);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto saveNewComment(@RequestHeader("X-Sharer-User-Id") int userId,
                                      @PathVariable("itemId") int id,
@@ -76,5 +145,42 @@ public class ItemController {
         return commentService.saveComment(userId, id, commentDto);
     }
 
+    /*
+     * Построчная запись вещей в ответ. Тип содержимого выставляется при первой записи, поэтому исключение,
+     * выброшенное сервисом до выгрузки, обрабатывается обычным образом и возвращается в формате JSON.
+     */
+    private class NdjsonWriter implements Consumer<ItemDto> {
+
+        private final HttpServletResponse response;
+        private OutputStream out;
+
+        private NdjsonWriter(HttpServletResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void accept(ItemDto itemDto) {
+            try {
+                start();
+                out.write(objectMapper.writeValueAsBytes(itemDto));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void finish() throws IOException {
+            start();
+        }
+
+        private void start() throws IOException {
+            if (out == null) {
+                response.setContentType(NDJSON_CONTENT_TYPE);
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                out = response.getOutputStream();
+            }
+        }
+
+    }
 
 }
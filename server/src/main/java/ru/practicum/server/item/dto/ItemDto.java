@@ -25,6 +25,7 @@ public class ItemDto {
     private BookingDto lastBooking;
     private BookingDto nextBooking;
     private List<CommentDto> comments;
+    private Integer commentCount;
     private Integer requestId;
 
 }
@@ -0,0 +1,20 @@
+package ru.practicum.server.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimeSlotDto {
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+
+}
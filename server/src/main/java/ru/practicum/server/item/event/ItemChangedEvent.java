@@ -0,0 +1,16 @@
+package ru.practicum.server.item.event;
+
+import lombok.Value;
+import ru.practicum.server.item.dto.ItemDto;
+
+/*
+ * Вещь создана (previous == null), изменена или удалена (current == null).
+ */
+@Value
+public class ItemChangedEvent {
+
+    ItemDto previous;
+
+    ItemDto current;
+
+}
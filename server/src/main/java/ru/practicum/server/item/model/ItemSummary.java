@@ -0,0 +1,79 @@
+package ru.practicum.server.item.model;
+
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/*
+ * Денормализованная сводка по вещи для списка вещей владельца: последнее и следующее подтвержденное
+ * бронирование, число комментариев и последние комментарии в формате JSON. Идентификатор совпадает с id вещи,
+ * поэтому новизна сводки отслеживается явно, чтобы save выполнял persist без предварительного select.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "item_summary")
+public class ItemSummary implements Persistable<Integer> {
+
+    @Id
+    @Column(name = "item_id")
+    private Integer itemId;
+
+    @Column(name = "last_booking_id")
+    private Integer lastBookingId;
+
+    @Column(name = "last_booking_start")
+    private LocalDateTime lastBookingStart;
+
+    @Column(name = "last_booking_end")
+    private LocalDateTime lastBookingEnd;
+
+    @Column(name = "last_booker_id")
+    private Integer lastBookerId;
+
+    @Column(name = "next_booking_id")
+    private Integer nextBookingId;
+
+    @Column(name = "next_booking_start")
+    private LocalDateTime nextBookingStart;
+
+    @Column(name = "next_booking_end")
+    private LocalDateTime nextBookingEnd;
+
+    @Column(name = "next_booker_id")
+    private Integer nextBookerId;
+
+    @Column(name = "comment_count")
+    private int commentCount;
+
+    @Column(name = "latest_comments")
+    private String latestComments;
+
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean created = true;
+
+    @Override
+    public Integer getId() {
+        return itemId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return created;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        created = false;
+    }
+
+}
@@ -1,15 +1,18 @@
 package ru.practicum.server.item.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.server.item.model.Comment;
-import ru.practicum.server.item.model.Item;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
 
-    List<Comment> findByItemOrderByIdAsc(Item item);
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findByItemIdOrderByIdDesc(Integer itemId, Pageable pageable);
 
-    List<Comment> findByItemIn(List<Item> items);
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findByItemIdAndIdLessThanOrderByIdDesc(Integer itemId, Integer id, Pageable pageable);
 
 }
@@ -0,0 +1,17 @@
+package ru.practicum.server.item.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.server.item.dto.CommentDto;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ItemComments {
+
+    private final int count;
+
+    private final List<CommentDto> latest;
+
+}
@@ -0,0 +1,167 @@
+package ru.practicum.server.item.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.server.booking.dto.BookingDto;
+import ru.practicum.server.booking.model.BookingStatus;
+import ru.practicum.server.item.dto.CommentDto;
+import ru.practicum.server.item.dto.ItemDto;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/*
+ * Чтение карточки вещи одним запросом: строки вещи, последнего и следующего бронирования и комментариев
+ * объединяются через union all и различаются по row_type. Бронирования возвращаются только владельцу вещи,
+ * комментарии ограничены последними, а их общее число приходит в строке вещи. Остальные читаются лентой комментариев.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ItemReadRepository {
+
+    private static final String ITEM_DETAILS_SQL = "select 'ITEM' as row_type, i.id, i.name as text, " +
+            "i.description as extra, i.available, i.owner_id as ref_id, i.request_id, " +
+            "cast(null as timestamp) as start_date, cast(null as timestamp) as end_date, " +
+            "(select count(*) from comments as c where c.item_id = i.id) as comment_count " +
+            "from items as i " +
+            "where i.id = :itemId " +
+            "union all " +
+            "select 'LAST', id, cast(null as varchar), cast(null as varchar), cast(null as boolean), booker_id, " +
+            "cast(null as int), start_date, end_date, cast(null as bigint) " +
+            "from (select b.*, row_number() over (order by b.start_date desc, b.id desc) rn " +
+            "      from bookings as b join items as i on i.id = b.item_id " +
+            "      where b.item_id = :itemId and i.owner_id = :userId and b.status = 'APPROVED' and " +
+            "      b.start_date < :now) last_booking " +
+            "where rn = 1 " +
+            "union all " +
+            "select 'NEXT', id, cast(null as varchar), cast(null as varchar), cast(null as boolean), booker_id, " +
+            "cast(null as int), start_date, end_date, cast(null as bigint) " +
+            "from (select b.*, row_number() over (order by b.start_date, b.id) rn " +
+            "      from bookings as b join items as i on i.id = b.item_id " +
+            "      where b.item_id = :itemId and i.owner_id = :userId and b.status = 'APPROVED' and " +
+            "      b.start_date > :now) next_booking " +
+            "where rn = 1 " +
+            "union all " +
+            "select 'COMMENT', lc.id, lc.text, u.name, cast(null as boolean), lc.author_id, cast(null as int), " +
+            "lc.created, cast(null as timestamp), cast(null as bigint) " +
+            "from (select c.*, row_number() over (order by c.id desc) rn " +
+            "      from comments as c " +
+            "      where c.item_id = :itemId) lc " +
+            "join users as u on u.id = lc.author_id " +
+            "where lc.rn <= :commentLimit";
+
+    private static final String LATEST_COMMENTS_SQL = "select lc.id, lc.text, lc.item_id, lc.created, " +
+            "u.name as author_name, lc.comment_count " +
+            "from (select c.*, row_number() over (partition by c.item_id order by c.id desc) rn, " +
+            "      count(*) over (partition by c.item_id) comment_count " +
+            "      from comments as c " +
+            "      where c.item_id in (:itemIds)) lc " +
+            "join users as u on u.id = lc.author_id " +
+            "where lc.rn <= :limit " +
+            "order by lc.item_id, lc.id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Value("${shareit.item.summary.latest-comments:10}")
+    private int latestCommentsLimit;
+
+    public Optional<ItemDto> findItemDetails(Integer itemId, Integer userId, LocalDateTime now) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("itemId", itemId)
+                .addValue("userId", userId)
+                .addValue("now", now)
+                .addValue("commentLimit", latestCommentsLimit);
+        ItemDto.ItemDtoBuilder item = ItemDto.builder();
+        List<CommentDto> comments = new ArrayList<>();
+        boolean[] found = {false};
+
+        jdbcTemplate.query(ITEM_DETAILS_SQL, parameters, rs -> {
+            switch (rs.getString("row_type")) {
+                case "ITEM":
+                    found[0] = true;
+                    item.id(rs.getInt("id"))
+                            .name(rs.getString("text"))
+                            .description(rs.getString("extra"))
+                            .available(rs.getBoolean("available"))
+                            .requestId(rs.getObject("request_id", Integer.class))
+                            .commentCount(rs.getInt("comment_count"));
+                    break;
+                case "LAST":
+                    item.lastBooking(toBookingDto(rs, itemId));
+                    break;
+                case "NEXT":
+                    item.nextBooking(toBookingDto(rs, itemId));
+                    break;
+                default:
+                    comments.add(CommentDto.builder()
+                            .id(rs.getInt("id"))
+                            .text(rs.getString("text"))
+                            .itemId(itemId)
+                            .authorName(rs.getString("extra"))
+                            .created(rs.getObject("start_date", LocalDateTime.class))
+                            .build());
+            }
+        });
+
+        if (!found[0]) {
+            return Optional.empty();
+        }
+        comments.sort(Comparator.comparing(CommentDto::getId));
+        return Optional.of(item.comments(comments).build());
+    }
+
+    /*
+     * Последние limit комментариев и общее число комментариев по каждой вещи. Вещи без комментариев
+     * в результат не попадают.
+     */
+    public Map<Integer, ItemComments> findLatestComments(Collection<Integer> itemIds, int limit) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("itemIds", itemIds)
+                .addValue("limit", limit);
+        Map<Integer, Integer> counts = new HashMap<>();
+        Map<Integer, List<CommentDto>> comments = new HashMap<>();
+
+        jdbcTemplate.query(LATEST_COMMENTS_SQL, parameters, rs -> {
+            Integer itemId = rs.getInt("item_id");
+            counts.put(itemId, rs.getInt("comment_count"));
+            comments.computeIfAbsent(itemId, id -> new ArrayList<>()).add(CommentDto.builder()
+                    .id(rs.getInt("id"))
+                    .text(rs.getString("text"))
+                    .itemId(itemId)
+                    .authorName(rs.getString("author_name"))
+                    .created(rs.getObject("created", LocalDateTime.class))
+                    .build());
+        });
+
+        Map<Integer, ItemComments> result = new HashMap<>();
+        comments.forEach((itemId, latest) -> result.put(itemId, new ItemComments(counts.get(itemId), latest)));
+        return result;
+    }
+
+    private BookingDto toBookingDto(ResultSet rs, Integer itemId) throws SQLException {
+        return BookingDto.builder()
+                .id(rs.getInt("id"))
+                .start(rs.getObject("start_date", LocalDateTime.class))
+                .end(rs.getObject("end_date", LocalDateTime.class))
+                .itemId(itemId)
+                .bookerId(rs.getInt("ref_id"))
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+
+}
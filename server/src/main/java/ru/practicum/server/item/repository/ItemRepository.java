@@ -2,14 +2,27 @@ package ru.practicum.server.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.server.item.model.Item;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Integer> {
 
-    List<Item> findAllByOwnerIdOrderByIdAsc(Integer userId, Pageable pageable);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<Item> streamAllByOwnerIdOrderByIdAsc(Integer userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Item> findLockedById(Integer id);
 
     @Query("select i " +
             "from Item as i " +
@@ -18,6 +31,40 @@ public interface ItemRepository extends JpaRepository<Item, Integer> {
             "lower(i.description) like lower(concat('%', ?1, '%') ))")
     List<Item> search(String text, Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select i " +
+            "from Item as i " +
+            "where i.available = true and " +
+            "(lower(i.name) like lower(concat('%', ?1, '%') ) or " +
+            "lower(i.description) like lower(concat('%', ?1, '%') )) " +
+            "order by i.id")
+    Stream<Item> streamSearch(String text);
+
+    @Query(value = "select i.id, i.name, i.description, i.available, i.owner_id, i.request_id " +
+            "from items as i " +
+            "where i.available = true and i.search_vector @@ plainto_tsquery('russian', :text) " +
+            "order by ts_rank(i.search_vector, plainto_tsquery('russian', :text)) desc, i.id",
+            countQuery = "select count(*) " +
+                    "from items as i " +
+                    "where i.available = true and i.search_vector @@ plainto_tsquery('russian', :text)",
+            nativeQuery = true)
+    List<Item> searchFullText(@Param("text") String text, Pageable pageable);
+
+    @Query(value = "select i.id, i.name, i.description, i.available, i.owner_id, i.request_id " +
+            "from items as i " +
+            "where i.available = true and " +
+            "(lower(i.name) like '%' || lower(:text) || '%' or lower(i.description) like '%' || lower(:text) || '%') " +
+            "order by i.id",
+            countQuery = "select count(*) " +
+                    "from items as i " +
+                    "where i.available = true and " +
+                    "(lower(i.name) like '%' || lower(:text) || '%' or " +
+                    "lower(i.description) like '%' || lower(:text) || '%')",
+            nativeQuery = true)
+    List<Item> searchContaining(@Param("text") String text, Pageable pageable);
+
+    List<Item> findAllByAvailableTrueAndIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
     List<Item> findAllByRequestIdIn(List<Integer> requestIds);
 
 }
@@ -0,0 +1,30 @@
+package ru.practicum.server.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.server.item.model.ItemSummary;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemSummaryRepository extends JpaRepository<ItemSummary, Integer> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ItemSummary> findLockedByItemId(Integer itemId);
+
+    @Query("select s.itemId from ItemSummary as s where s.itemId in :itemIds and s.nextBookingStart <= :now")
+    List<Integer> findStaleItemIds(@Param("itemIds") Collection<Integer> itemIds, @Param("now") LocalDateTime now);
+
+    @Query("select i as item, s as summary " +
+            "from Item as i left join ItemSummary as s on s.itemId = i.id " +
+            "where i.owner.id = :ownerId " +
+            "order by i.id")
+    List<ItemWithSummary> findAllByOwnerId(@Param("ownerId") Integer ownerId, Pageable pageable);
+
+}
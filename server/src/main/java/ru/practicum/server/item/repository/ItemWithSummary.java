@@ -0,0 +1,12 @@
+package ru.practicum.server.item.repository;
+
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.item.model.ItemSummary;
+
+public interface ItemWithSummary {
+
+    Item getItem();
+
+    ItemSummary getSummary();
+
+}
@@ -0,0 +1,68 @@
+package ru.practicum.server.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.dto.ItemMapper;
+import ru.practicum.server.item.repository.ItemRepository;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/*
+ * Полнотекстовый поиск PostgreSQL по столбцу items.search_vector (см. schema-postgresql.sql).
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = ItemSearchEngine.ENGINE_PROPERTY, havingValue = "fulltext")
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+
+    private static final int STEM_LENGTH = 3;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemDto> search(String text, Integer from, Integer size) {
+        return itemRepository.searchFullText(text, PageRequest.of(from / size, size))
+                .stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    /*
+     * Приближение plainto_tsquery('russian', text): стеммер отбрасывает только окончания, поэтому слова с общей
+     * лексемой начинаются одинаково. Вещь считается подходящей, если начало хотя бы одного слова запроса
+     * совпадает с началом слова из названия или описания. Проверка не строже PostgreSQL: лишняя вещь только
+     * очистит лишнюю запись кэша, а пропущенная оставила бы в нем устаревший результат.
+     */
+    @Override
+    public boolean matches(String text, ItemDto item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return false;
+        }
+        Set<String> itemStems = getStems(item.getName(), item.getDescription());
+        return getStems(text).stream().anyMatch(itemStems::contains);
+    }
+
+    private Set<String> getStems(String... values) {
+        Set<String> stems = new HashSet<>();
+        for (String value : values) {
+            if (value == null) {
+                continue;
+            }
+            for (String word : WORD_SEPARATOR.split(value.toLowerCase())) {
+                if (!word.isEmpty()) {
+                    stems.add(word.substring(0, Math.min(word.length(), STEM_LENGTH)));
+                }
+            }
+        }
+        return stems;
+    }
+
+}
@@ -0,0 +1,202 @@
+package ru.practicum.server.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.dto.ItemMapper;
+import ru.practicum.server.item.event.ItemChangedEvent;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/*
+ * Инвертированный индекс триграмм доступных вещей в памяти сервера. Индекс строится при старте,
+ * затем поддерживается событиями ItemChangedEvent. Пока индекс не построен, поиск выполняется запросом JPQL.
+ * Кандидаты из индекса всегда проверяются поиском подстроки, поэтому результат совпадает с JpqlItemSearchEngine.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = ItemSearchEngine.ENGINE_PROPERTY, havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+
+    private final ConcurrentNavigableMap<Integer, ItemDto> items = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<Integer>> postings = new ConcurrentHashMap<>();
+    private final Set<Integer> changedWhileLoading = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready;
+
+    @Override
+    public List<ItemDto> search(String text, Integer from, Integer size) {
+        if (!ready) {
+            return itemRepository.search(text, PageRequest.of(from / size, size))
+                    .stream()
+                    .map(ItemMapper::toItemDto)
+                    .collect(Collectors.toList());
+        }
+        String query = text.toLowerCase();
+        int offset = from / size * size;
+        if (query.length() < GRAM_LENGTH) {
+            return items.values()
+                    .stream()
+                    .filter(item -> containsQuery(query, item))
+                    .skip(offset)
+                    .limit(size)
+                    .collect(Collectors.toList());
+        }
+
+        List<Set<Integer>> gramPostings = new ArrayList<>();
+        for (String gram : getGrams(query)) {
+            Set<Integer> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            gramPostings.add(ids);
+        }
+        gramPostings.sort(Comparator.comparingInt(Set::size));
+        Set<Integer> smallest = gramPostings.get(0);
+        List<Set<Integer>> others = gramPostings.subList(1, gramPostings.size());
+
+        return smallest.stream()
+                .filter(id -> others.stream().allMatch(ids -> ids.contains(id)))
+                .sorted()
+                .map(items::get)
+                .filter(item -> item != null && containsQuery(query, item))
+                .skip(offset)
+                .limit(size)
+                .collect(Collectors.toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        Integer lastId = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findAllByAvailableTrueAndIdGreaterThanOrderByIdAsc(lastId,
+                    PageRequest.of(0, LOAD_BATCH_SIZE));
+            List<ItemDto> dtos = batch.parallelStream()
+                    .map(ItemMapper::toItemDto)
+                    .collect(Collectors.toList());
+            // пачка вносится под той же блокировкой, что и события изменения вещей, иначе удаление вещи
+            // между putIfAbsent и addPostings оставит в индексе ее триграммы
+            synchronized (this) {
+                dtos.forEach(this::indexIfAbsent);
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        synchronized (this) {
+            for (Integer id : changedWhileLoading) {
+                unindex(id);
+                itemRepository.findById(id)
+                        .filter(Item::getAvailable)
+                        .map(ItemMapper::toItemDto)
+                        .ifPresent(this::index);
+            }
+            changedWhileLoading.clear();
+            ready = true;
+        }
+        log.info("Индекс поиска вещей построен: {} вещей, {} триграмм за {} мс", items.size(), postings.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @Order(INDEX_LISTENER_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onItemChanged(ItemChangedEvent event) {
+        ItemDto changed = event.getCurrent() != null ? event.getCurrent() : event.getPrevious();
+        if (!ready) {
+            changedWhileLoading.add(changed.getId());
+        }
+        unindex(changed.getId());
+        if (event.getCurrent() != null) {
+            index(event.getCurrent());
+        }
+    }
+
+    private void indexIfAbsent(ItemDto item) {
+        if (items.putIfAbsent(item.getId(), item) == null) {
+            addPostings(item);
+        }
+    }
+
+    private void index(ItemDto item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        items.put(item.getId(), item);
+        addPostings(item);
+    }
+
+    private void unindex(Integer id) {
+        ItemDto removed = items.remove(id);
+        if (removed == null) {
+            return;
+        }
+        for (String gram : getGrams(removed.getName(), removed.getDescription())) {
+            postings.computeIfPresent(gram, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private void addPostings(ItemDto item) {
+        for (String gram : getGrams(item.getName(), item.getDescription())) {
+            postings.compute(gram, (key, ids) -> {
+                Set<Integer> gramIds = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                gramIds.add(item.getId());
+                return gramIds;
+            });
+        }
+    }
+
+    private boolean containsQuery(String query, ItemDto item) {
+        return contains(item.getName(), query) || contains(item.getDescription(), query);
+    }
+
+    private boolean contains(String value, String query) {
+        return value != null && value.toLowerCase().contains(query);
+    }
+
+    private Set<String> getGrams(String... values) {
+        Set<String> grams = new HashSet<>();
+        for (String value : values) {
+            if (value == null) {
+                continue;
+            }
+            String lower = value.toLowerCase();
+            for (int i = 0; i + GRAM_LENGTH <= lower.length(); i++) {
+                grams.add(lower.substring(i, i + GRAM_LENGTH));
+            }
+        }
+        return grams;
+    }
+
+}
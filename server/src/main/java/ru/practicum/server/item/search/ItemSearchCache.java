@@ -0,0 +1,162 @@
+package ru.practicum.server.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.event.ItemChangedEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/*
+ * Ограниченный по размеру кэш результатов поиска вещей. При изменении вещи удаляются только те записи,
+ * в результат которых вещь входила до изменения или может войти после него. Поиск, начатый до такого изменения
+ * и затронутый им, помечается устаревшим, и его результат в кэш не попадает.
+ */
+@Component
+public class ItemSearchCache {
+
+    private final ItemSearchEngine itemSearchEngine;
+
+    private final Cache<SearchKey, List<ItemDto>> results;
+    private final Set<PendingSearch> pending = ConcurrentHashMap.newKeySet();
+
+    public ItemSearchCache(ItemSearchEngine itemSearchEngine, MeterRegistry meterRegistry,
+                           @Value("${shareit.item.search.cache-size:10000}") long maximumSize,
+                           @Value("${shareit.item.search.cache-ttl:10m}") Duration ttl) {
+        this.itemSearchEngine = itemSearchEngine;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "itemSearch");
+    }
+
+    public List<ItemDto> search(String text, Integer from, Integer size) {
+        SearchKey key = new SearchKey(text.toLowerCase(), from, size);
+        List<ItemDto> cached = results.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        PendingSearch search = new PendingSearch(key.getText());
+        pending.add(search);
+        try {
+            List<ItemDto> found = itemSearchEngine.search(text, from, size);
+            if (!search.stale) {
+                results.put(key, found);
+                // изменение могло пометить поиск после проверки, но до записи в кэш
+                if (search.stale) {
+                    results.asMap().remove(key, found);
+                }
+            }
+            return found;
+        } finally {
+            pending.remove(search);
+        }
+    }
+
+    /*
+     * Изменения, сделанные в транзакции, собираются и применяются к кэшу один раз после ее фиксации:
+     * пакетное создание вещей публикует событие на каждую вещь, а проход по всем записям кэша на каждое событие
+     * превращает пачку из тысячи вещей в тысячу полных обходов.
+     */
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        ItemDto previous = event.getPrevious();
+        ItemDto current = event.getCurrent();
+        if (previous != null && current != null && !isSearchableChanged(previous, current)) {
+            return;
+        }
+        List<ItemDto> changed = new ArrayList<>(2);
+        Optional.ofNullable(previous).ifPresent(changed::add);
+        Optional.ofNullable(current).ifPresent(changed::add);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(changed);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<ItemDto> collected = (List<ItemDto>) TransactionSynchronizationManager.getResource(this);
+        if (collected == null) {
+            List<ItemDto> transactionChanges = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, transactionChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    // после обновления индекса поиска, как и прежний слушатель с @Order
+                    return ItemSearchEngine.CACHE_LISTENER_ORDER;
+                }
+
+                @Override
+                public void afterCommit() {
+                    evict(transactionChanges);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ItemSearchCache.this);
+                }
+            });
+            collected = transactionChanges;
+        }
+        collected.addAll(changed);
+    }
+
+    private void evict(List<ItemDto> changed) {
+        Map<String, Boolean> affectedTexts = new HashMap<>();
+        Predicate<String> affected = text -> affectedTexts.computeIfAbsent(text,
+                key -> changed.stream().anyMatch(item -> itemSearchEngine.matches(key, item)));
+        for (PendingSearch search : pending) {
+            if (affected.test(search.text)) {
+                search.stale = true;
+            }
+        }
+        // записи с одним текстом и разными страницами проверяются один раз
+        results.asMap().keySet().removeIf(key -> affected.test(key.getText()));
+    }
+
+    private boolean isSearchableChanged(ItemDto previous, ItemDto current) {
+        return !Objects.equals(previous.getName(), current.getName()) ||
+                !Objects.equals(previous.getDescription(), current.getDescription()) ||
+                !Objects.equals(previous.getAvailable(), current.getAvailable());
+    }
+
+    @Data
+    static class SearchKey {
+
+        private final String text;
+
+        private final Integer from;
+
+        private final Integer size;
+
+    }
+
+    private static class PendingSearch {
+
+        private final String text;
+        private volatile boolean stale;
+
+        private PendingSearch(String text) {
+            this.text = text;
+        }
+
+    }
+
+}
@@ -0,0 +1,34 @@
+package ru.practicum.server.item.search;
+
+import ru.practicum.server.item.dto.ItemDto;
+
+import java.util.List;
+
+/*
+ * Поиск доступных вещей по названию или описанию.
+ * Реализация выбирается свойством shareit.item.search.engine.
+ */
+public interface ItemSearchEngine {
+
+    String ENGINE_PROPERTY = "shareit.item.search.engine";
+
+    /*
+     * Порядок обработки ItemChangedEvent: индекс обновляется раньше, чем очищается кэш поиска, иначе
+     * параллельный поиск успеет положить в кэш результат по старому индексу.
+     */
+    int INDEX_LISTENER_ORDER = 0;
+    int CACHE_LISTENER_ORDER = INDEX_LISTENER_ORDER + 1;
+
+    List<ItemDto> search(String text, Integer from, Integer size);
+
+    /*
+     * Может ли вещь попасть в результат поиска по тексту. Используется для точечной очистки кэша поиска.
+     */
+    default boolean matches(String text, ItemDto item) {
+        String query = text.toLowerCase();
+        return Boolean.TRUE.equals(item.getAvailable()) &&
+                (item.getName() != null && item.getName().toLowerCase().contains(query) ||
+                        item.getDescription() != null && item.getDescription().toLowerCase().contains(query));
+    }
+
+}
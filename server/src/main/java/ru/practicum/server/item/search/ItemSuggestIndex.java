@@ -0,0 +1,225 @@
+package ru.practicum.server.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.server.item.event.ItemChangedEvent;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * Сжатое префиксное дерево названий доступных вещей для подсказок при вводе. Ребро хранит общую часть
+ * нескольких названий, узел с вещами соответствует полному названию в нижнем регистре. Дерево строится при старте
+ * и поддерживается событиями ItemChangedEvent, подсказки выдаются в алфавитном порядке без обращения к базе данных.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ItemSuggestIndex {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+
+    private final Node root = new Node("");
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+    private final Set<Integer> changedWhileLoading = ConcurrentHashMap.newKeySet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    public List<String> suggest(String prefix, int size) {
+        if (!ready || prefix.isBlank() || size <= 0) {
+            return Collections.emptyList();
+        }
+        String key = prefix.toLowerCase();
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int matched = 0;
+            while (matched < key.length()) {
+                Node child = node.children.get(key.charAt(matched));
+                if (child == null) {
+                    return Collections.emptyList();
+                }
+                int common = commonLength(child.label, key, matched);
+                if (matched + common < key.length() && common < child.label.length()) {
+                    return Collections.emptyList();
+                }
+                matched += common;
+                node = child;
+            }
+            List<String> suggestions = new ArrayList<>(size);
+            collect(node, suggestions, size);
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        Integer lastId = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findAllByAvailableTrueAndIdGreaterThanOrderByIdAsc(lastId,
+                    PageRequest.of(0, LOAD_BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (Item item : batch) {
+                    if (!changedWhileLoading.contains(item.getId()) && !names.containsKey(item.getId())) {
+                        insert(item.getId(), item.getName());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        lock.writeLock().lock();
+        try {
+            for (Integer id : changedWhileLoading) {
+                remove(id);
+                itemRepository.findById(id)
+                        .filter(Item::getAvailable)
+                        .ifPresent(item -> insert(item.getId(), item.getName()));
+            }
+            changedWhileLoading.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Индекс подсказок по названиям вещей построен: {} вещей за {} мс", names.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        Integer id = event.getCurrent() != null ? event.getCurrent().getId() : event.getPrevious().getId();
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                changedWhileLoading.add(id);
+            }
+            remove(id);
+            if (event.getCurrent() != null && Boolean.TRUE.equals(event.getCurrent().getAvailable())) {
+                insert(id, event.getCurrent().getName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insert(Integer id, String name) {
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        String key = name.toLowerCase();
+        Node node = root;
+        int matched = 0;
+        while (matched < key.length()) {
+            Node child = node.children.get(key.charAt(matched));
+            if (child == null) {
+                child = new Node(key.substring(matched));
+                node.children.put(child.label.charAt(0), child);
+                node = child;
+                break;
+            }
+            int common = commonLength(child.label, key, matched);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children.put(child.label.charAt(0), child);
+                node.children.put(split.label.charAt(0), split);
+                child = split;
+            }
+            matched += common;
+            node = child;
+        }
+        node.items.put(id, name);
+        names.put(id, key);
+    }
+
+    private void remove(Integer id) {
+        String key = names.remove(id);
+        if (key != null) {
+            remove(root, key, 0, id);
+        }
+    }
+
+    private void remove(Node parent, String key, int offset, Integer id) {
+        Node node = parent.children.get(key.charAt(offset));
+        int end = offset + node.label.length();
+        if (end == key.length()) {
+            node.items.remove(id);
+        } else {
+            remove(node, key, end, id);
+        }
+        if (!node.items.isEmpty()) {
+            return;
+        }
+        if (node.children.isEmpty()) {
+            parent.children.remove(node.label.charAt(0));
+        } else if (node.children.size() == 1) {
+            Node child = node.children.firstEntry().getValue();
+            child.label = node.label + child.label;
+            parent.children.put(child.label.charAt(0), child);
+        }
+    }
+
+    private void collect(Node node, List<String> suggestions, int size) {
+        if (!node.items.isEmpty()) {
+            suggestions.add(node.items.firstEntry().getValue());
+            if (suggestions.size() == size) {
+                return;
+            }
+        }
+        for (Node child : node.children.values()) {
+            collect(child, suggestions, size);
+            if (suggestions.size() == size) {
+                return;
+            }
+        }
+    }
+
+    private int commonLength(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int common = 0;
+        while (common < length && label.charAt(common) == key.charAt(offset + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    private static class Node {
+
+        private String label;
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        private final TreeMap<Integer, String> items = new TreeMap<>();
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+    }
+
+}
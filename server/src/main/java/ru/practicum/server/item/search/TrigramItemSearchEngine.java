@@ -0,0 +1,33 @@
+package ru.practicum.server.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.dto.ItemMapper;
+import ru.practicum.server.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+ * Поиск подстроки без учёта регистра, как в JpqlItemSearchEngine, но с опорой на триграммные
+ * GIN-индексы по lower(name) и lower(description) (см. schema-postgresql.sql).
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = ItemSearchEngine.ENGINE_PROPERTY, havingValue = "trigram")
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemDto> search(String text, Integer from, Integer size) {
+        return itemRepository.searchContaining(text, PageRequest.of(from / size, size))
+                .stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+}
@@ -2,8 +2,12 @@ package ru.practicum.server.item.service;
 
 import ru.practicum.server.item.dto.CommentDto;
 
+import java.util.List;
+
 public interface CommentService {
 
     CommentDto saveComment(Integer userId, Integer itemId, CommentDto commentDto);
 
+    List<CommentDto> getComments(Integer itemId, Integer after, Integer size);
+
 }
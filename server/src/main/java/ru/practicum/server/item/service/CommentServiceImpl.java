@@ -2,10 +2,10 @@ package ru.practicum.server.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.server.booking.model.BookingStatus;
-import ru.practicum.server.booking.repository.BookingRepository;
+import ru.practicum.server.booking.service.RentalHistoryIndex;
 import ru.practicum.server.exception.NotFoundException;
 import ru.practicum.server.exception.ValidationException;
 import ru.practicum.server.item.dto.CommentDto;
@@ -18,6 +18,8 @@ import ru.practicum.server.user.model.User;
 import ru.practicum.server.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
@@ -28,7 +30,8 @@ public class CommentServiceImpl implements CommentService {
     private final CommentRepository commentRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
-    private final BookingRepository bookingRepository;
+    private final RentalHistoryIndex rentalHistoryIndex;
+    private final ItemSummaryService itemSummaryService;
 
     @Override
     @Transactional
@@ -47,12 +50,32 @@ public class CommentServiceImpl implements CommentService {
 
         Comment comment = CommentMapper.toComment(commentDto, author, item);
 
-        if (!bookingRepository.existsBookingByItemAndBookerAndStatusNotAndStartBefore(item,
-                author, BookingStatus.REJECTED, LocalDateTime.now())) {
+        if (!rentalHistoryIndex.hasRented(author.getId(), item.getId())) {
             throw new ValidationException("Нельзя оставить комментарий к вещи, которая не была в аренде");
         }
         comment.setCreated(LocalDateTime.now());
-        return CommentMapper.toCommentDto(commentRepository.save(comment));
+        CommentDto savedCommentDto = CommentMapper.toCommentDto(commentRepository.save(comment));
+        itemSummaryService.addComment(savedCommentDto);
+        return savedCommentDto;
+    }
+
+    /*
+     * Лента комментариев от новых к старым. Курсор after - id последнего комментария предыдущей страницы,
+     * поэтому страница читается по индексу (item_id, id) без смещения.
+     */
+    @Override
+    public List<CommentDto> getComments(Integer itemId, Integer after, Integer size) {
+        if (!itemRepository.existsById(itemId)) {
+            log.warn("Вещь с id = {} не найдена", itemId);
+            throw new NotFoundException(String.format("Вещь с id %d не найдена", itemId));
+        }
+        PageRequest page = PageRequest.of(0, size);
+        List<Comment> comments = after == null
+                ? commentRepository.findByItemIdOrderByIdDesc(itemId, page)
+                : commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(itemId, after, page);
+        return comments.stream()
+                .map(CommentMapper::toCommentDto)
+                .collect(Collectors.toList());
     }
 
 }
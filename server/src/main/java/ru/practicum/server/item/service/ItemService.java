@@ -1,13 +1,18 @@
 package ru.practicum.server.item.service;
 
 import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.dto.TimeSlotDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
 
     ItemDto saveItem(Integer userId, ItemDto itemDto);
 
+    List<Integer> saveItems(Integer userId, List<ItemDto> itemDtos);
+
     List<ItemDto> getAllByUserId(Integer userId, Integer from, Integer size);
 
     ItemDto getById(Integer userId, Integer id);
@@ -18,4 +23,12 @@ public interface ItemService {
 
     List<ItemDto> searchItem(Integer userId, String text, Integer from, Integer size);
 
+    List<String> suggestNames(String prefix, Integer size);
+
+    void exportByUserId(Integer userId, Consumer<ItemDto> consumer);
+
+    void exportSearch(String text, Consumer<ItemDto> consumer);
+
+    List<TimeSlotDto> getAvailability(Integer id, LocalDateTime from, LocalDateTime to);
+
 }
@@ -2,31 +2,34 @@ package ru.practicum.server.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.server.booking.dto.BookingDto;
-import ru.practicum.server.booking.dto.BookingMapper;
-import ru.practicum.server.booking.model.BookingStatus;
+import ru.practicum.server.booking.model.Booking;
 import ru.practicum.server.booking.repository.BookingRepository;
+import ru.practicum.server.booking.service.BookingIntervalIndex;
 import ru.practicum.server.exception.NotFoundException;
-import ru.practicum.server.item.dto.CommentDto;
-import ru.practicum.server.item.dto.CommentMapper;
+import ru.practicum.server.exception.ValidationException;
 import ru.practicum.server.item.dto.ItemDto;
 import ru.practicum.server.item.dto.ItemMapper;
+import ru.practicum.server.item.dto.TimeSlotDto;
+import ru.practicum.server.item.event.ItemChangedEvent;
 import ru.practicum.server.item.model.Item;
-import ru.practicum.server.item.repository.CommentRepository;
+import ru.practicum.server.item.repository.ItemReadRepository;
 import ru.practicum.server.item.repository.ItemRepository;
+import ru.practicum.server.item.search.ItemSearchCache;
+import ru.practicum.server.item.search.ItemSuggestIndex;
 import ru.practicum.server.request.model.ItemRequest;
 import ru.practicum.server.request.repository.ItemRequestRepository;
 import ru.practicum.server.user.model.User;
 import ru.practicum.server.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.*;
-
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.toList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -35,10 +38,15 @@ import static java.util.stream.Collectors.toList;
 public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
+    private final ItemReadRepository itemReadRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
-    private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final ItemSummaryService itemSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     @Transactional
     @Override
@@ -53,7 +61,56 @@ public class ItemServiceImpl implements ItemService {
             ItemRequest itemRequest = itemRequestRepository.findById(item.getRequestId()).orElseThrow(() ->
                     new NotFoundException(String.format("Запрос с id = %d не найден", item.getRequestId())));
         }
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        ItemDto savedItemDto = ItemMapper.toItemDto(itemRepository.save(item));
+        itemSummaryService.createSummary(savedItemDto.getId());
+        eventPublisher.publishEvent(new ItemChangedEvent(null, savedItemDto));
+        return savedItemDto;
+    }
+
+    @Transactional
+    @Override
+    public List<Integer> saveItems(Integer userId, List<ItemDto> itemDtos) {
+        User user = userRepository.findById(userId).orElseThrow(() -> {
+                    log.warn("Пользователь с id = {} не найден", userId);
+                    return new NotFoundException(String.format("Пользователь с id %d не найден", userId));
+                }
+        );
+        if (itemDtos.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Integer> requestIds = new HashSet<>();
+        for (ItemDto itemDto : itemDtos) {
+            if (itemDto.getName() == null || itemDto.getDescription() == null || itemDto.getAvailable() == null) {
+                log.warn("У вещи не заполнены название, описание или доступность");
+                throw new ValidationException("У вещи не заполнены название, описание или доступность");
+            }
+            if (itemDto.getRequestId() != null) {
+                requestIds.add(itemDto.getRequestId());
+            }
+        }
+        if (!requestIds.isEmpty()) {
+            itemRequestRepository.findAllById(requestIds).forEach(request -> requestIds.remove(request.getId()));
+            if (!requestIds.isEmpty()) {
+                log.warn("Запросы с id = {} не найдены", requestIds);
+                throw new NotFoundException(String.format("Запросы с id = %s не найдены", requestIds));
+            }
+        }
+
+        List<Item> items = new ArrayList<>();
+        for (ItemDto itemDto : itemDtos) {
+            Item item = ItemMapper.toItem(user, itemDto);
+            item.setId(null);
+            items.add(item);
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (Item item : itemRepository.saveAll(items)) {
+            ids.add(item.getId());
+            eventPublisher.publishEvent(new ItemChangedEvent(null, ItemMapper.toItemDto(item)));
+        }
+        itemSummaryService.createSummaries(ids);
+        log.info("Пользователь с id = {} добавил {} вещей", userId, ids.size());
+        return ids;
     }
 
     @Override
@@ -63,57 +120,19 @@ public class ItemServiceImpl implements ItemService {
                     return new NotFoundException(String.format("Пользователь с id %d не найден", userId));
                 }
         );
-        PageRequest page = PageRequest.of(from / size, size);
-        List<Item> userItems = itemRepository.findAllByOwnerIdOrderByIdAsc(userId, page);
-
-        Map<Integer, List<CommentDto>> comments = commentRepository.findByItemIn(userItems)
-                .stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(groupingBy(CommentDto::getItemId, toList()));
-
-        Map<Integer, List<BookingDto>> bookings = bookingRepository.findAllByItemInAndStatusOrderByStartAsc(userItems,
-                        BookingStatus.APPROVED)
-                .stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(groupingBy(BookingDto::getItemId, toList()));
-
-        return userItems
-                .stream()
-                .map(item -> ItemMapper.toItemDto(
-                        item,
-                        getLastBooking(bookings.get(item.getId())),
-                        getNextBooking(bookings.get(item.getId())),
-                        comments.getOrDefault(item.getId(), Collections.emptyList())))
-                .collect(toList());
+        List<ItemDto> items = itemSummaryService.getByOwnerId(userId, from, size);
+        // сводки, у которых следующее бронирование уже началось, сохраняются после чтения в своей транзакции
+        itemSummaryService.refreshStaleBookings(items.stream().map(ItemDto::getId).collect(Collectors.toList()));
+        return items;
     }
 
     @Override
     public ItemDto getById(Integer userId, Integer id) {
-        Item item = itemRepository.findById(id).orElseThrow(() -> {
+        return itemReadRepository.findItemDetails(id, userId, LocalDateTime.now()).orElseThrow(() -> {
                     log.warn("Вещь с id = {} не найдена", id);
                     return new NotFoundException(String.format("Вещь с id %d не найдена", id));
                 }
         );
-        List<BookingDto> bookings = bookingRepository.findAllByItemInAndStatusOrderByStartAsc(List.of(item),
-                        BookingStatus.APPROVED)
-                .stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(toList());
-
-        List<CommentDto> comments = commentRepository.findByItemOrderByIdAsc(item)
-                .stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(toList());
-
-        if (item.getOwner().getId().equals(userId)) {
-            return ItemMapper.toItemDto(
-                    item,
-                    getLastBooking(bookings),
-                    getNextBooking(bookings),
-                    comments
-            );
-        }
-        return ItemMapper.toItemDto(item, comments);
     }
 
     @Transactional
@@ -130,17 +149,23 @@ public class ItemServiceImpl implements ItemService {
             throw new NotFoundException("Обновить вещь может только ее владелец");
         }
 
+        ItemDto previousItemDto = ItemMapper.toItemDto(item);
         Optional.ofNullable(itemDto.getName()).ifPresent(item::setName);
         Optional.ofNullable(itemDto.getDescription()).ifPresent(item::setDescription);
         Optional.ofNullable(itemDto.getAvailable()).ifPresent(item::setAvailable);
 
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        ItemDto updatedItemDto = ItemMapper.toItemDto(itemRepository.save(item));
+        eventPublisher.publishEvent(new ItemChangedEvent(previousItemDto, updatedItemDto));
+        return updatedItemDto;
     }
 
     @Transactional
     @Override
     public void deleteById(Integer id) {
+        Optional<Item> item = itemRepository.findById(id);
         itemRepository.deleteById(id);
+        item.ifPresent(deleted -> eventPublisher.publishEvent(new ItemChangedEvent(ItemMapper.toItemDto(deleted),
+                null)));
     }
 
     @Override
@@ -148,35 +173,77 @@ public class ItemServiceImpl implements ItemService {
         if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
-        PageRequest page = PageRequest.of(from / size, size);
-        return itemRepository.search(text, page)
-                .stream()
-                .map(ItemMapper::toItemDto)
-                .collect(toList());
+        return itemSearchCache.search(text, from, size);
     }
 
-    private BookingDto getLastBooking(List<BookingDto> bookings) {
-        if (bookings == null || bookings.isEmpty()) {
-            return null;
+    @Override
+    public List<String> suggestNames(String prefix, Integer size) {
+        if (prefix == null || prefix.isBlank()) {
+            return Collections.emptyList();
         }
+        return itemSuggestIndex.suggest(prefix, size);
+    }
 
-        return bookings
-                .stream()
-                .filter(bookingDto -> bookingDto.getStart().isBefore(LocalDateTime.now()))
-                .max(Comparator.comparing(BookingDto::getStart))
-                .orElse(null);
+    @Override
+    public void exportByUserId(Integer userId, Consumer<ItemDto> consumer) {
+        userRepository.findById(userId).orElseThrow(() -> {
+                    log.warn("Пользователь с id = {} не найден", userId);
+                    return new NotFoundException(String.format("Пользователь с id %d не найден", userId));
+                }
+        );
+        try (Stream<Item> items = itemRepository.streamAllByOwnerIdOrderByIdAsc(userId)) {
+            export(items, consumer);
+        }
     }
 
-    private BookingDto getNextBooking(List<BookingDto> bookings) {
-        if (bookings == null || bookings.isEmpty()) {
-            return null;
+    @Override
+    public void exportSearch(String text, Consumer<ItemDto> consumer) {
+        if (text == null || text.isBlank()) {
+            return;
         }
+        try (Stream<Item> items = itemRepository.streamSearch(text)) {
+            export(items, consumer);
+        }
+    }
+
+    @Override
+    public List<TimeSlotDto> getAvailability(Integer id, LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            log.warn("Конец периода раньше или равен его началу");
+            throw new ValidationException("Конец периода раньше или равен его началу");
+        }
+        if (!itemRepository.existsById(id)) {
+            log.warn("Вещь с id = {} не найдена", id);
+            throw new NotFoundException(String.format("Вещь с id %d не найдена", id));
+        }
+
+        List<TimeSlotDto> slots = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        try (Stream<Booking> bookings = bookingRepository.streamByItemIdWithin(id, BookingIntervalIndex.ACTIVE_STATUSES,
+                from, to)) {
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext() && freeFrom.isBefore(to)) {
+                Booking booking = iterator.next();
+                if (booking.getStart().isAfter(freeFrom)) {
+                    slots.add(new TimeSlotDto(freeFrom, booking.getStart()));
+                }
+                if (booking.getEnd().isAfter(freeFrom)) {
+                    freeFrom = booking.getEnd();
+                }
+            }
+        }
+        if (freeFrom.isBefore(to)) {
+            slots.add(new TimeSlotDto(freeFrom, to));
+        }
+        return slots;
+    }
 
-        return bookings
-                .stream()
-                .filter(bookingDto -> bookingDto.getStart().isAfter(LocalDateTime.now()))
-                .findFirst()
-                .orElse(null);
+    private void export(Stream<Item> items, Consumer<ItemDto> consumer) {
+        // вещи отсоединяются от контекста сразу после записи, чтобы он не рос вместе с выгрузкой
+        items.forEach(item -> {
+            consumer.accept(ItemMapper.toItemDto(item));
+            entityManager.detach(item);
+        });
     }
 
 }
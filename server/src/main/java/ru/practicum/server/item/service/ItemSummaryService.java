@@ -0,0 +1,23 @@
+package ru.practicum.server.item.service;
+
+import ru.practicum.server.item.dto.CommentDto;
+import ru.practicum.server.item.dto.ItemDto;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemSummaryService {
+
+    void createSummary(Integer itemId);
+
+    void createSummaries(Collection<Integer> itemIds);
+
+    void refreshBookings(Collection<Integer> itemIds);
+
+    void refreshStaleBookings(Collection<Integer> itemIds);
+
+    void addComment(CommentDto commentDto);
+
+    List<ItemDto> getByOwnerId(Integer ownerId, Integer from, Integer size);
+
+}
@@ -0,0 +1,268 @@
+package ru.practicum.server.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.server.booking.dto.BookingDto;
+import ru.practicum.server.booking.dto.BookingMapper;
+import ru.practicum.server.booking.model.BookingStatus;
+import ru.practicum.server.booking.repository.BookingRepository;
+import ru.practicum.server.item.dto.CommentDto;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.item.model.ItemSummary;
+import ru.practicum.server.item.repository.ItemComments;
+import ru.practicum.server.item.repository.ItemReadRepository;
+import ru.practicum.server.item.repository.ItemSummaryRepository;
+import ru.practicum.server.item.repository.ItemWithSummary;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+/*
+ * Сводка обновляется под блокировкой строки в транзакции подтверждения бронирования и добавления комментария.
+ * Следующее бронирование со временем становится последним, поэтому для таких сводок бронирования пересчитываются
+ * при чтении списка вещей. Чтение ничего не записывает: запись без блокировки могла бы затереть сводку,
+ * обновленную параллельным подтверждением бронирования. Устаревшие сводки сохраняются после чтения
+ * в отдельной транзакции через refreshStaleBookings, под той же блокировкой, что и при подтверждении.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@Transactional
+public class ItemSummaryServiceImpl implements ItemSummaryService {
+
+    private static final TypeReference<List<CommentDto>> COMMENT_LIST = new TypeReference<>() {
+    };
+    private static final ItemComments NO_COMMENTS = new ItemComments(0, Collections.emptyList());
+
+    private final ItemSummaryRepository itemSummaryRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemReadRepository itemReadRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${shareit.item.summary.latest-comments:10}")
+    private int latestCommentsLimit;
+
+    @Override
+    public void createSummary(Integer itemId) {
+        itemSummaryRepository.save(ItemSummary.builder().itemId(itemId).build());
+    }
+
+    @Override
+    public void createSummaries(Collection<Integer> itemIds) {
+        itemSummaryRepository.saveAll(itemIds.stream()
+                .map(itemId -> ItemSummary.builder().itemId(itemId).build())
+                .collect(toList()));
+    }
+
+    @Override
+    public void refreshBookings(Collection<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, List<BookingDto>> bookings = getLastAndNextBookings(itemIds, now);
+        for (Integer itemId : new TreeSet<>(itemIds)) {
+            List<BookingDto> itemBookings = bookings.get(itemId);
+            Optional<ItemSummary> locked = itemSummaryRepository.findLockedByItemId(itemId);
+            if (locked.isEmpty()) {
+                log.warn("Сводка по вещи с id = {} отсутствует и будет построена заново", itemId);
+                itemSummaryRepository.save(buildSummary(itemId));
+                continue;
+            }
+            setBookings(locked.get(), getLastBooking(itemBookings, now), getNextBooking(itemBookings, now));
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void refreshStaleBookings(Collection<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        List<Integer> staleIds = itemSummaryRepository.findStaleItemIds(itemIds, LocalDateTime.now());
+        if (!staleIds.isEmpty()) {
+            log.info("Сохранение устаревших сводок по вещам с id = {}", staleIds);
+            refreshBookings(staleIds);
+        }
+    }
+
+    @Override
+    public void addComment(CommentDto commentDto) {
+        Optional<ItemSummary> locked = itemSummaryRepository.findLockedByItemId(commentDto.getItemId());
+        if (locked.isEmpty()) {
+            log.warn("Сводка по вещи с id = {} отсутствует и будет построена заново", commentDto.getItemId());
+            itemSummaryRepository.save(buildSummary(commentDto.getItemId()));
+            return;
+        }
+        ItemSummary summary = locked.get();
+        List<CommentDto> latest = new ArrayList<>(readComments(summary.getLatestComments()));
+        latest.add(commentDto);
+        summary.setCommentCount(summary.getCommentCount() + 1);
+        summary.setLatestComments(writeComments(latest));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> getByOwnerId(Integer ownerId, Integer from, Integer size) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemWithSummary> rows = itemSummaryRepository.findAllByOwnerId(ownerId,
+                PageRequest.of(from / size, size));
+
+        List<Integer> staleIds = rows.stream()
+                .filter(row -> row.getSummary() == null || isStale(row.getSummary(), now))
+                .map(row -> row.getItem().getId())
+                .collect(toList());
+        Map<Integer, List<BookingDto>> staleBookings = staleIds.isEmpty()
+                ? Collections.emptyMap()
+                : getLastAndNextBookings(staleIds, now);
+
+        List<Integer> itemsWithoutSummary = rows.stream()
+                .filter(row -> row.getSummary() == null)
+                .map(row -> row.getItem().getId())
+                .collect(toList());
+        Map<Integer, ItemComments> comments = itemReadRepository.findLatestComments(itemsWithoutSummary,
+                latestCommentsLimit);
+
+        List<ItemDto> items = new ArrayList<>();
+        for (ItemWithSummary row : rows) {
+            Item item = row.getItem();
+            ItemSummary summary = row.getSummary();
+            ItemDto.ItemDtoBuilder itemDto = ItemDto.builder()
+                    .id(item.getId())
+                    .name(item.getName())
+                    .description(item.getDescription())
+                    .available(item.getAvailable())
+                    .requestId(item.getRequestId());
+
+            if (staleIds.contains(item.getId())) {
+                List<BookingDto> itemBookings = staleBookings.get(item.getId());
+                itemDto.lastBooking(getLastBooking(itemBookings, now))
+                        .nextBooking(getNextBooking(itemBookings, now));
+            } else {
+                itemDto.lastBooking(toLastBooking(summary)).nextBooking(toNextBooking(summary));
+            }
+
+            if (summary == null) {
+                ItemComments itemComments = comments.getOrDefault(item.getId(), NO_COMMENTS);
+                itemDto.commentCount(itemComments.getCount()).comments(itemComments.getLatest());
+            } else {
+                itemDto.commentCount(summary.getCommentCount()).comments(readComments(summary.getLatestComments()));
+            }
+            items.add(itemDto.build());
+        }
+        return items;
+    }
+
+    private ItemSummary buildSummary(Integer itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingDto> bookings = getLastAndNextBookings(List.of(itemId), now).get(itemId);
+        BookingDto last = getLastBooking(bookings, now);
+        BookingDto next = getNextBooking(bookings, now);
+        ItemComments comments = itemReadRepository.findLatestComments(List.of(itemId), latestCommentsLimit)
+                .getOrDefault(itemId, NO_COMMENTS);
+        ItemSummary summary = ItemSummary.builder()
+                .itemId(itemId)
+                .commentCount(comments.getCount())
+                .latestComments(writeComments(comments.getLatest()))
+                .build();
+        setBookings(summary, last, next);
+        return summary;
+    }
+
+    private void setBookings(ItemSummary summary, BookingDto last, BookingDto next) {
+        summary.setLastBookingId(last != null ? last.getId() : null);
+        summary.setLastBookingStart(last != null ? last.getStart() : null);
+        summary.setLastBookingEnd(last != null ? last.getEnd() : null);
+        summary.setLastBookerId(last != null ? last.getBookerId() : null);
+        summary.setNextBookingId(next != null ? next.getId() : null);
+        summary.setNextBookingStart(next != null ? next.getStart() : null);
+        summary.setNextBookingEnd(next != null ? next.getEnd() : null);
+        summary.setNextBookerId(next != null ? next.getBookerId() : null);
+    }
+
+    private boolean isStale(ItemSummary summary, LocalDateTime now) {
+        return summary.getNextBookingStart() != null && !summary.getNextBookingStart().isAfter(now);
+    }
+
+    private Map<Integer, List<BookingDto>> getLastAndNextBookings(Collection<Integer> itemIds, LocalDateTime now) {
+        return bookingRepository.findLastAndNextApprovedByItemIdIn(itemIds, now)
+                .stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(groupingBy(BookingDto::getItemId, toList()));
+    }
+
+    private BookingDto getLastBooking(List<BookingDto> bookings, LocalDateTime now) {
+        if (bookings == null) {
+            return null;
+        }
+        return bookings.stream()
+                .filter(bookingDto -> bookingDto.getStart().isBefore(now))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private BookingDto getNextBooking(List<BookingDto> bookings, LocalDateTime now) {
+        if (bookings == null) {
+            return null;
+        }
+        return bookings.stream()
+                .filter(bookingDto -> bookingDto.getStart().isAfter(now))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private BookingDto toLastBooking(ItemSummary summary) {
+        if (summary.getLastBookingId() == null) {
+            return null;
+        }
+        return new BookingDto(summary.getLastBookingId(), summary.getLastBookingStart(),
+                summary.getLastBookingEnd(), summary.getItemId(), summary.getLastBookerId(), BookingStatus.APPROVED);
+    }
+
+    private BookingDto toNextBooking(ItemSummary summary) {
+        if (summary.getNextBookingId() == null) {
+            return null;
+        }
+        return new BookingDto(summary.getNextBookingId(), summary.getNextBookingStart(),
+                summary.getNextBookingEnd(), summary.getItemId(), summary.getNextBookerId(), BookingStatus.APPROVED);
+    }
+
+    private List<CommentDto> latest(List<CommentDto> comments) {
+        if (comments.size() <= latestCommentsLimit) {
+            return comments;
+        }
+        return new ArrayList<>(comments.subList(comments.size() - latestCommentsLimit, comments.size()));
+    }
+
+    private List<CommentDto> readComments(String json) {
+        if (json == null) {
+            return new ArrayList<>();
+        }
+        try {
+            return objectMapper.readValue(json, COMMENT_LIST);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось прочитать комментарии из сводки по вещи", e);
+        }
+    }
+
+    private String writeComments(List<CommentDto> comments) {
+        try {
+            return objectMapper.writeValueAsString(latest(comments));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось записать комментарии в сводку по вещи", e);
+        }
+    }
+
+}
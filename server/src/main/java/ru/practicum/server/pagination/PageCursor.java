@@ -0,0 +1,44 @@
+package ru.practicum.server.pagination;
+
+import lombok.Value;
+import ru.practicum.server.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/*
+ * Позиция в ленте, упорядоченной по времени и id. Время хранится в базе данных с точностью до микросекунд,
+ * поэтому курсор кодирует его с той же точностью: иначе строка, на которой остановилась страница,
+ * могла бы оказаться раньше курсора и повториться на следующей странице.
+ */
+@Value
+public class PageCursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "|";
+
+    LocalDateTime timestamp;
+
+    Integer id;
+
+    public String encode() {
+        String raw = timestamp.truncatedTo(ChronoUnit.MICROS) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException(String.format("Некорректный курсор пагинации: %s", token));
+        }
+    }
+
+}
@@ -2,7 +2,11 @@ package ru.practicum.server.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.server.pagination.PageCursor;
 import ru.practicum.server.request.dto.ItemRequestDto;
 import ru.practicum.server.request.service.ItemRequestService;
 
@@ -30,13 +34,29 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllRequests(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                               @RequestParam(defaultValue = "0")
-                                               Integer from,
-                                               @RequestParam(defaultValue = "10")
-                                               Integer size) {
+    public ResponseEntity<List<ItemRequestDto>> getAllRequests(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                               @RequestParam(defaultValue = "0")
+                                                               Integer from,
+                                                               @RequestParam(defaultValue = "10")
+                                                               Integer size,
+                                                               @RequestParam(required = false)
+                                                               String after) {
         log.info("Получение списка запросов других пользователей");
-        return itemRequestService.getAllRequests(userId, from, size);
+        List<ItemRequestDto> itemRequests = after == null
+                ? itemRequestService.getAllRequests(userId, from, size)
+                : itemRequestService.getAllRequestsAfter(userId, after, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!itemRequests.isEmpty() && itemRequests.size() == size) {
+            ItemRequestDto last = itemRequests.get(itemRequests.size() - 1);
+            response.header(PageCursor.NEXT_CURSOR_HEADER, new PageCursor(last.getCreated(), last.getId()).encode());
+        }
+        return response.body(itemRequests);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRequests(@RequestHeader("X-Sharer-User-Id") Integer userId) {
+        log.info("Подписка пользователя с id = {} на новые запросы других пользователей", userId);
+        return itemRequestService.subscribe(userId);
     }
 
     @GetMapping("/{requestId}")
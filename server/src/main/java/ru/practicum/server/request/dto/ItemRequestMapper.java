@@ -6,6 +6,7 @@ import ru.practicum.server.request.model.ItemRequest;
 import ru.practicum.server.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -27,7 +28,8 @@ public class ItemRequestMapper {
                 .id(itemRequestDto.getId())
                 .description(itemRequestDto.getDescription())
                 .requestor(requestor)
-                .created(itemRequestDto.getCreated() != null ? itemRequestDto.getCreated() : LocalDateTime.now())
+                .created((itemRequestDto.getCreated() != null ? itemRequestDto.getCreated() : LocalDateTime.now())
+                        .truncatedTo(ChronoUnit.MICROS))
                 .build();
     }
 
@@ -0,0 +1,11 @@
+package ru.practicum.server.request.event;
+
+import lombok.Value;
+import ru.practicum.server.request.dto.ItemRequestDto;
+
+@Value
+public class ItemRequestCreatedEvent {
+
+    ItemRequestDto request;
+
+}
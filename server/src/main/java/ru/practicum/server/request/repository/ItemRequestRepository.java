@@ -1,11 +1,27 @@
 package ru.practicum.server.request.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.server.request.model.ItemRequest;
 import ru.practicum.server.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Integer> {
     List<ItemRequest> findAllByRequestorOrderByCreatedDesc(User requestor);
+
+    List<ItemRequest> findAllByRequestor_IdNotOrderByCreatedDescIdDesc(Integer requestorId, Pageable pageable);
+
+    @Query("select r " +
+            "from ItemRequest as r " +
+            "where r.requestor.id <> :requestorId and " +
+            "(r.created < :created or (r.created = :created and r.id < :id)) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findAllByRequestorIdNotAfter(@Param("requestorId") Integer requestorId,
+                                                   @Param("created") LocalDateTime created,
+                                                   @Param("id") Integer id,
+                                                   Pageable pageable);
 }
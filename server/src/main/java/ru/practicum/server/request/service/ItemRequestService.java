@@ -1,5 +1,6 @@
 package ru.practicum.server.request.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.server.request.dto.ItemRequestDto;
 
 import java.util.List;
@@ -12,6 +13,10 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getAllRequests(Integer userId, Integer from, Integer size);
 
+    List<ItemRequestDto> getAllRequestsAfter(Integer userId, String after, Integer size);
+
     ItemRequestDto getById(Integer userId, Integer requestId);
 
+    SseEmitter subscribe(Integer userId);
+
 }
@@ -2,17 +2,21 @@ package ru.practicum.server.request.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.server.exception.NotFoundException;
 import ru.practicum.server.item.model.Item;
 import ru.practicum.server.item.repository.ItemRepository;
+import ru.practicum.server.pagination.PageCursor;
 import ru.practicum.server.request.dto.ItemRequestDto;
 import ru.practicum.server.request.dto.ItemRequestMapper;
+import ru.practicum.server.request.event.ItemRequestCreatedEvent;
 import ru.practicum.server.request.model.ItemRequest;
 import ru.practicum.server.request.repository.ItemRequestRepository;
+import ru.practicum.server.request.stream.ItemRequestStream;
 import ru.practicum.server.user.model.User;
 import ru.practicum.server.user.repository.UserRepository;
 
@@ -34,6 +38,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ItemRequestStream itemRequestStream;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -44,7 +50,10 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 }
         );
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(requestor, itemRequestDto);
-        return ItemRequestMapper.toItemRequestDto(itemRequestRepository.save(itemRequest));
+        ItemRequestDto savedItemRequestDto = ItemRequestMapper.toItemRequestDto(
+                itemRequestRepository.save(itemRequest));
+        eventPublisher.publishEvent(new ItemRequestCreatedEvent(savedItemRequestDto));
+        return savedItemRequestDto;
     }
 
     @Override
@@ -66,10 +75,22 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                     return new NotFoundException(String.format("Пользователь с id %d не найден", userId));
                 }
         );
-        PageRequest page = PageRequest.of(from / size, size, Sort.by("created").descending());
-        List<ItemRequest> itemRequests = itemRequestRepository.findAll(page).stream()
-                .filter(itemRequest -> !itemRequest.getRequestor().equals(requestor))
-                .collect(Collectors.toList());
+        List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestor_IdNotOrderByCreatedDescIdDesc(
+                requestor.getId(), PageRequest.of(from / size, size));
+        setItemsByRequest(itemRequests);
+        return ItemRequestMapper.toItemRequestDtoListWithItems(itemRequests);
+    }
+
+    @Override
+    public List<ItemRequestDto> getAllRequestsAfter(Integer userId, String after, Integer size) {
+        PageCursor cursor = PageCursor.decode(after);
+        User requestor = userRepository.findById(userId).orElseThrow(() -> {
+                    log.warn("Пользователь с id = {} не найден", userId);
+                    return new NotFoundException(String.format("Пользователь с id %d не найден", userId));
+                }
+        );
+        List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestorIdNotAfter(requestor.getId(),
+                cursor.getTimestamp(), cursor.getId(), PageRequest.of(0, size));
         setItemsByRequest(itemRequests);
         return ItemRequestMapper.toItemRequestDtoListWithItems(itemRequests);
     }
@@ -90,6 +111,15 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return ItemRequestMapper.toItemRequestDto(itemRequest);
     }
 
+    @Override
+    public SseEmitter subscribe(Integer userId) {
+        if (!userRepository.existsById(userId)) {
+            log.warn("Пользователь с id = {} не найден", userId);
+            throw new NotFoundException(String.format("Пользователь с id %d не найден", userId));
+        }
+        return itemRequestStream.subscribe(userId);
+    }
+
     private void setItemsByRequest(List<ItemRequest> itemRequests) {
         List<Integer> itemRequestsIds = itemRequests.stream()
                 .map(ItemRequest::getId)
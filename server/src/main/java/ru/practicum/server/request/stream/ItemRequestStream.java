@@ -0,0 +1,130 @@
+package ru.practicum.server.request.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.server.request.dto.ItemRequestDto;
+import ru.practicum.server.request.event.ItemRequestCreatedEvent;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Рассылка новых запросов вещей подписчикам через server-sent events. Событие попадает в ограниченную очередь
+ * каждого подписчика после фиксации транзакции, очереди разбираются отдельным пулом потоков, поэтому медленный
+ * клиент не задерживает сохранение запроса. Подписчик, не успевающий читать события, отключается: после
+ * переподключения он догоняет пропущенное через GET /requests/all с курсором.
+ */
+@Component
+@Slf4j
+public class ItemRequestStream {
+
+    private static final int SENDER_THREADS = 2;
+    private static final String EVENT_NAME = "request";
+
+    private final int bufferSize;
+    private final Duration timeout;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newFixedThreadPool(SENDER_THREADS);
+
+    public ItemRequestStream(@Value("${shareit.request.stream.buffer-size:100}") int bufferSize,
+                             @Value("${shareit.request.stream.timeout:30m}") Duration timeout) {
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+    }
+
+    public SseEmitter subscribe(Integer userId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        log.debug("Пользователь с id = {} подписался на новые запросы, подписчиков: {}", userId, subscribers.size());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemRequestCreated(ItemRequestCreatedEvent event) {
+        ItemRequestDto request = event.getRequest();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.userId.equals(request.getRequestorId())) {
+                continue;
+            }
+            if (!subscriber.queue.offer(request)) {
+                log.warn("Подписчик с id = {} не успевает получать новые запросы и будет отключен",
+                        subscriber.userId);
+                subscribers.remove(subscriber);
+                subscriber.emitter.complete();
+                continue;
+            }
+            schedule(subscriber);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            ItemRequestDto request;
+            while ((request = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(request.getId()))
+                        .name(EVENT_NAME)
+                        .data(request, MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Не удалось отправить запрос подписчику с id = {}: {}", subscriber.userId, e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.queue.clear();
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        if (!subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private static class Subscriber {
+
+        private final Integer userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<ItemRequestDto> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(Integer userId, SseEmitter emitter, BlockingQueue<ItemRequestDto> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+    }
+
+}
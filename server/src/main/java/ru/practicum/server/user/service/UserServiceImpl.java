@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.server.booking.service.BookingIntervalIndex;
 import ru.practicum.server.exception.NotFoundException;
 import ru.practicum.server.user.dto.UserDto;
 import ru.practicum.server.user.dto.UserMapper;
@@ -21,6 +22,7 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
 
     @Transactional
     @Override
@@ -63,6 +65,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void delete(int id) {
         getById(id);
+        bookingIntervalIndex.evictBookedBy(id);
         userRepository.deleteById(id);
     }
 
@@ -1,20 +1,36 @@
-DROP TABLE IF EXISTS users, items, bookings, comments, requests;
+DROP TABLE IF EXISTS item_summary, users, items, bookings, comments, requests;
+
+DROP SEQUENCE IF EXISTS users_seq;
+DROP SEQUENCE IF EXISTS requests_seq;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS bookings_seq;
+DROP SEQUENCE IF EXISTS comments_seq;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users (
-    id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id INT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(255) UNIQUE NOT NULL
     );
 
 CREATE TABLE IF NOT EXISTS requests (
-    id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id INT PRIMARY KEY,
     description VARCHAR(1000) NOT NULL,
     requestor_id INT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
     created TIMESTAMP WITHOUT TIME ZONE NOT NULL
     );
 
 CREATE TABLE IF NOT EXISTS items (
-    id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id INT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     description VARCHAR(1000) NOT NULL,
     available BOOLEAN NOT NULL,
@@ -23,18 +39,49 @@ CREATE TABLE IF NOT EXISTS items (
     );
 
 CREATE TABLE IF NOT EXISTS bookings (
-    id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id INT PRIMARY KEY,
     start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id INT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
     booker_id INT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
-    status VARCHAR(64) DEFAULT 'WAITING'
+    status VARCHAR(64) DEFAULT 'WAITING',
+    version INT NOT NULL DEFAULT 0
     );
 
 CREATE TABLE IF NOT EXISTS comments (
-    id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id INT PRIMARY KEY,
     text VARCHAR(2000) NOT NULL,
     item_id INT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
     author_id INT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
     created TIMESTAMP WITHOUT TIME ZONE NOT NULL
     );
+
+CREATE TABLE IF NOT EXISTS item_summary (
+    item_id INT PRIMARY KEY REFERENCES items(id) ON DELETE CASCADE,
+    last_booking_id INT,
+    last_booking_start TIMESTAMP WITHOUT TIME ZONE,
+    last_booking_end TIMESTAMP WITHOUT TIME ZONE,
+    last_booker_id INT,
+    next_booking_id INT,
+    next_booking_start TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_end TIMESTAMP WITHOUT TIME ZONE,
+    next_booker_id INT,
+    comment_count INT NOT NULL DEFAULT 0,
+    latest_comments TEXT
+    );
+
+CREATE INDEX IF NOT EXISTS items_owner_id_idx ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx ON bookings (booker_id, status, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_booker_status_start_idx ON bookings (item_id, booker_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS comments_item_id_idx ON comments (item_id, id);
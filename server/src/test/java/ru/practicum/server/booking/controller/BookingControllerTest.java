@@ -10,11 +10,16 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.server.booking.dto.BookingDecisionDto;
 import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingResponseDto;
+import ru.practicum.server.booking.dto.BookingSummaryDto;
+import ru.practicum.server.booking.model.BookingDecisionOutcome;
 import ru.practicum.server.booking.model.BookingStatus;
 import ru.practicum.server.booking.service.BookingService;
+import ru.practicum.server.exception.ConflictException;
 import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.pagination.PageCursor;
 import ru.practicum.server.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
@@ -83,6 +88,54 @@ class BookingControllerTest {
         verify(bookingService, times(1)).approveBooking(anyInt(), anyInt(), anyBoolean());
     }
 
+    @SneakyThrows
+    @Test
+    @DisplayName("Конфликт при подтверждении бронирования, изменённого параллельно")
+    void approveBooking_whenConflict_thenReturnConflict() {
+        when(bookingService.approveBooking(anyInt(), anyInt(), anyBoolean()))
+                .thenThrow(new ConflictException("Бронирование с id = 1 было изменено параллельным запросом"));
+
+        mockMvc.perform(patch("/bookings/{bookingId}", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .param("approved", "true"))
+                .andExpect(status().isConflict());
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Подтверждение списка бронирований")
+    void approveBookings() {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1, BookingDecisionOutcome.APPROVED),
+                new BookingDecisionDto(2, BookingDecisionOutcome.NOT_FOUND));
+        when(bookingService.approveBookings(1, List.of(1, 2), true)).thenReturn(decisions);
+
+        mockMvc.perform(patch("/bookings/bulk")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("approved", "true")
+                        .content(objectMapper.writeValueAsString(List.of(1, 2)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(decisions)));
+
+        verify(bookingService, times(1)).approveBookings(1, List.of(1, 2), true);
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Получение количества бронирований владельца вещей по состояниям")
+    void getBookingsSummaryByItemsOwner() {
+        BookingSummaryDto summary = new BookingSummaryDto(6L, 1L, 2L, 3L, 1L, 0L);
+        when(bookingService.getSummaryByItemsOwner(1)).thenReturn(summary);
+
+        mockMvc.perform(get("/bookings/owner/summary")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all").value(6))
+                .andExpect(jsonPath("$.future").value(3));
+
+        verify(bookingService, times(1)).getSummaryByItemsOwner(1);
+    }
+
     @SneakyThrows
     @Test
     @DisplayName("Получение бронирования по id")
@@ -130,4 +183,24 @@ class BookingControllerTest {
 
         verify(bookingService, times(1)).getByItemsOwner(anyInt(), anyString(), anyInt(), anyInt());
     }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Получение списка бронирований пользователя по курсору")
+    void getBookingsByUser_whenCursorPassed_thenReturnNextCursor() {
+        String after = new PageCursor(LocalDateTime.now(), 5).encode();
+        when(bookingService.getByUserAfter(1, "ALL", after, 1))
+                .thenReturn(List.of(bookingResponseDto));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("after", after)
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string(PageCursor.NEXT_CURSOR_HEADER,
+                        new PageCursor(bookingResponseDto.getStart(), bookingResponseDto.getId()).encode()));
+
+        verify(bookingService, never()).getByUser(anyInt(), anyString(), anyInt(), anyInt());
+    }
 }
\ No newline at end of file
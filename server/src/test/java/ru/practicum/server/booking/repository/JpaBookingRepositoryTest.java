@@ -6,19 +6,31 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.server.booking.dto.BookingSummaryDto;
 import ru.practicum.server.booking.model.Booking;
+import ru.practicum.server.booking.model.BookingState;
 import ru.practicum.server.booking.model.BookingStatus;
 import ru.practicum.server.item.model.Item;
 import ru.practicum.server.item.repository.ItemRepository;
+import ru.practicum.server.pagination.PageCursor;
 import ru.practicum.server.user.model.User;
 import ru.practicum.server.user.repository.UserRepository;
 
+import javax.persistence.PersistenceUnitUtil;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 class JpaBookingRepositoryTest {
@@ -29,6 +41,8 @@ class JpaBookingRepositoryTest {
     private UserRepository userRepository;
     @Autowired
     private ItemRepository itemRepository;
+    @Autowired
+    private TestEntityManager entityManager;
 
     private final User owner = User.builder().name("user").email("user@user.com").build();
     private final User booker = User.builder().name("booker").email("booker@user.com").build();
@@ -77,36 +91,197 @@ class JpaBookingRepositoryTest {
     }
 
     @Test
-    @DisplayName("Получение бронирований списка вещей")
-    void findAllByItemInAndStatusOrderByStartAsc() {
-        Booking booking1 = Booking.builder().start(LocalDateTime.now().plusMinutes(10)).end(LocalDateTime.now()
-                .plusHours(1)).item(item).booker(booker).status(BookingStatus.WAITING).build();
-        bookingRepository.save(booking1);
+    @DisplayName("Получение списка бронирований пользователя по состоянию")
+    void findByBooker_whenFilteredByState_thenReturnOnlyMatchingBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking pastBooking = Booking.builder().start(now.minusDays(2)).end(now.minusDays(1)).item(item)
+                .booker(booker).status(BookingStatus.APPROVED).build();
+        Booking futureBooking = Booking.builder().start(now.plusDays(1)).end(now.plusDays(2)).item(item)
+                .booker(booker).status(BookingStatus.REJECTED).build();
+        bookingRepository.save(pastBooking);
+        bookingRepository.save(futureBooking);
+        Pageable page = PageRequest.of(0, 1, Sort.by("start").descending());
 
-        List<Booking> actualBookings = bookingRepository.findAllByItemInAndStatusOrderByStartAsc(List.of(item),
-                BookingStatus.WAITING);
+        List<Booking> current = bookingRepository.findByBookerAndStartBeforeAndEndAfter(booker, now.plusMinutes(1),
+                now.plusMinutes(1), page);
+        List<Booking> past = bookingRepository.findByBookerAndEndBefore(booker, now, page);
+        List<Booking> future = bookingRepository.findByBookerAndStartAfter(booker, now, page);
+        List<Booking> waiting = bookingRepository.findByBookerAndStatus(booker, BookingStatus.WAITING, page);
+        List<Booking> rejected = bookingRepository.findByBookerAndStatus(booker, BookingStatus.REJECTED, page);
 
-        assertEquals(2, actualBookings.size());
-        assertEquals(actualBookings.get(0), booking);
-        assertEquals(actualBookings.get(0).getItem(), item);
-        assertEquals(actualBookings.get(0).getBooker(), booker);
-        assertNotNull(actualBookings.get(0).getStart());
-        assertNotNull(actualBookings.get(0).getEnd());
-        assertEquals(actualBookings.get(0).getStatus(), BookingStatus.WAITING);
+        assertEquals(List.of(booking), current);
+        assertEquals(List.of(pastBooking), past);
+        assertEquals(List.of(futureBooking), future);
+        assertEquals(List.of(booking), waiting);
+        assertEquals(List.of(futureBooking), rejected);
+    }
+
+    @Test
+    @DisplayName("Получение полной страницы бронирований владельца вещи по состоянию")
+    void findByItem_Owner_whenFilteredByState_thenReturnFullPage() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= 3; i++) {
+            bookingRepository.save(Booking.builder().start(now.minusDays(i + 1)).end(now.minusDays(i)).item(item)
+                    .booker(booker).status(BookingStatus.APPROVED).build());
+            bookingRepository.save(Booking.builder().start(now.plusDays(i)).end(now.plusDays(i + 1)).item(item)
+                    .booker(booker).status(BookingStatus.WAITING).build());
+        }
+        Pageable page = PageRequest.of(0, 2, Sort.by("start").descending());
+
+        List<Booking> past = bookingRepository.findByItem_OwnerAndEndBefore(owner, now, page);
+        List<Booking> future = bookingRepository.findByItem_OwnerAndStartAfter(owner, now, page);
+        List<Booking> current = bookingRepository.findByItem_OwnerAndStartBeforeAndEndAfter(owner,
+                now.plusMinutes(1), now.plusMinutes(1), page);
+        List<Booking> approved = bookingRepository.findByItem_OwnerAndStatus(owner, BookingStatus.APPROVED, page);
+
+        assertEquals(2, past.size());
+        assertTrue(past.get(0).getStart().isAfter(past.get(1).getStart()));
+        assertTrue(past.stream().allMatch(b -> b.getEnd().isBefore(now)));
+        assertEquals(2, future.size());
+        assertTrue(future.get(0).getStart().isAfter(future.get(1).getStart()));
+        assertTrue(future.stream().allMatch(b -> b.getStart().isAfter(now)));
+        assertEquals(List.of(booking), current);
+        assertEquals(2, approved.size());
+        assertTrue(approved.stream().allMatch(b -> b.getStatus() == BookingStatus.APPROVED));
+    }
+
+    @Test
+    @DisplayName("Постраничное получение бронирований по курсору")
+    void findByBookerAfter_whenStartsAreEqual_thenPagesDoNotOverlap() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < 3; i++) {
+            bookingRepository.save(Booking.builder().start(start).end(start.plusHours(1)).item(item)
+                    .booker(booker).status(BookingStatus.WAITING).build());
+        }
+        PageCursor first = new PageCursor(start.plusDays(1), Integer.MAX_VALUE);
+
+        List<Booking> firstPage = bookingRepository.findByBookerAfter(booker.getId(), BookingState.FUTURE,
+                LocalDateTime.now(), first, 2);
+        Booking last = firstPage.get(firstPage.size() - 1);
+        List<Booking> secondPage = bookingRepository.findByItemsOwnerAfter(owner.getId(), BookingState.FUTURE,
+                LocalDateTime.now(), new PageCursor(last.getStart(), last.getId()), 2);
+
+        assertEquals(2, firstPage.size());
+        assertTrue(firstPage.get(0).getId() > firstPage.get(1).getId());
+        assertEquals(1, secondPage.size());
+        assertTrue(secondPage.get(0).getId() < last.getId());
+    }
+
+    @Test
+    @DisplayName("Вещь и автор бронирования загружаются вместе со списком бронирований")
+    void findByBooker_thenItemAndBookerAreFetched() {
+        entityManager.flush();
+        entityManager.clear();
+        PersistenceUnitUtil util = entityManager.getEntityManager().getEntityManagerFactory().getPersistenceUnitUtil();
+        PageCursor first = new PageCursor(LocalDateTime.now().plusDays(1), Integer.MAX_VALUE);
+
+        List<Booking> byBooker = bookingRepository.findByBooker(booker, Pageable.ofSize(10));
+        List<Booking> byOwner = bookingRepository.findByItem_OwnerAndStatus(owner, BookingStatus.WAITING,
+                Pageable.ofSize(10));
+        List<Booking> byCursor = bookingRepository.findByItemsOwnerAfter(owner.getId(), BookingState.ALL,
+                LocalDateTime.now(), first, 10);
 
-        assertEquals(actualBookings.get(1), booking1);
-        assertEquals(actualBookings.get(1).getItem(), item);
-        assertEquals(actualBookings.get(1).getBooker(), booker);
-        assertNotNull(actualBookings.get(1).getStart());
-        assertNotNull(actualBookings.get(1).getEnd());
-        assertEquals(actualBookings.get(1).getStatus(), BookingStatus.WAITING);
+        for (List<Booking> bookings : List.of(byBooker, byOwner, byCursor)) {
+            assertEquals(1, bookings.size());
+            assertTrue(util.isLoaded(bookings.get(0).getItem()));
+            assertTrue(util.isLoaded(bookings.get(0).getBooker()));
+        }
     }
 
     @Test
-    @DisplayName("Проверка наличия бронирования по вещи и владельцу бронирования")
-    void existsBookingByItemAndBookerAndStatusNotAndStartBefore() {
-        Boolean booking = bookingRepository.existsBookingByItemAndBookerAndStatusNotAndStartBefore(
-                item, booker, BookingStatus.APPROVED, LocalDateTime.now().plusMinutes(5));
-        assertEquals(booking, true);
+    @DisplayName("Подсчёт бронирований по состояниям одним запросом")
+    void getSummaryByBookerAndItemsOwner() {
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(Booking.builder().start(now.minusDays(2)).end(now.minusDays(1)).item(item)
+                .booker(booker).status(BookingStatus.APPROVED).build());
+        bookingRepository.save(Booking.builder().start(now.plusDays(1)).end(now.plusDays(2)).item(item)
+                .booker(booker).status(BookingStatus.REJECTED).build());
+
+        BookingSummaryDto byBooker = bookingRepository.getSummaryByBooker(booker.getId(), now.plusMinutes(1),
+                BookingStatus.WAITING, BookingStatus.REJECTED);
+        BookingSummaryDto byOwner = bookingRepository.getSummaryByItemsOwner(owner.getId(), now.plusMinutes(1),
+                BookingStatus.WAITING, BookingStatus.REJECTED);
+        BookingSummaryDto empty = bookingRepository.getSummaryByBooker(owner.getId(), now,
+                BookingStatus.WAITING, BookingStatus.REJECTED);
+
+        BookingSummaryDto expected = new BookingSummaryDto(3L, 1L, 1L, 1L, 1L, 1L);
+        assertEquals(expected, byBooker);
+        assertEquals(expected, byOwner);
+        assertEquals(new BookingSummaryDto(0L, 0L, 0L, 0L, 0L, 0L), empty);
+    }
+
+    @Test
+    @DisplayName("Потоковое получение активных бронирований вещи в пределах периода")
+    void streamByItemIdWithin() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking inside = bookingRepository.save(Booking.builder().start(now.plusDays(2)).end(now.plusDays(3))
+                .item(item).booker(booker).status(BookingStatus.APPROVED).build());
+        bookingRepository.save(Booking.builder().start(now.plusDays(4)).end(now.plusDays(5)).item(item)
+                .booker(booker).status(BookingStatus.REJECTED).build());
+        bookingRepository.save(Booking.builder().start(now.plusDays(10)).end(now.plusDays(11)).item(item)
+                .booker(booker).status(BookingStatus.WAITING).build());
+
+        try (Stream<Booking> bookings = bookingRepository.streamByItemIdWithin(item.getId(),
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), now.plusMinutes(30), now.plusDays(6))) {
+            assertEquals(List.of(booking, inside), bookings.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    @DisplayName("Получение только последнего и ближайшего подтверждённых бронирований каждой вещи")
+    void findLastAndNextApprovedByItemIdIn() {
+        LocalDateTime now = LocalDateTime.now();
+        Item other = itemRepository.save(Item.builder().name("Пила").description("Ручная пила").available(true)
+                .owner(owner).build());
+        bookingRepository.save(Booking.builder().start(now.minusDays(3)).end(now.minusDays(2)).item(item)
+                .booker(booker).status(BookingStatus.APPROVED).build());
+        Booking last = bookingRepository.save(Booking.builder().start(now.minusDays(2)).end(now.minusDays(1))
+                .item(item).booker(booker).status(BookingStatus.APPROVED).build());
+        Booking next = bookingRepository.save(Booking.builder().start(now.plusDays(1)).end(now.plusDays(2))
+                .item(item).booker(booker).status(BookingStatus.APPROVED).build());
+        bookingRepository.save(Booking.builder().start(now.plusDays(3)).end(now.plusDays(4)).item(item)
+                .booker(booker).status(BookingStatus.APPROVED).build());
+        bookingRepository.save(Booking.builder().start(now.plusHours(1)).end(now.plusHours(2)).item(item)
+                .booker(booker).status(BookingStatus.REJECTED).build());
+        Booking otherNext = bookingRepository.save(Booking.builder().start(now.plusDays(5)).end(now.plusDays(6))
+                .item(other).booker(booker).status(BookingStatus.APPROVED).build());
+
+        List<Booking> bookings = bookingRepository.findLastAndNextApprovedByItemIdIn(
+                List.of(item.getId(), other.getId()), now);
+
+        assertEquals(3, bookings.size());
+        assertTrue(bookings.containsAll(List.of(last, next, otherNext)));
+    }
+
+    @Test
+    @DisplayName("Получение id вещей, которые пользователь уже арендовал")
+    void findRentedItemIds() {
+        Item saw = Item.builder().name("Пила").description("Острая пила").available(true).owner(owner).build();
+        itemRepository.save(saw);
+        bookingRepository.save(Booking.builder().start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1)).item(saw).booker(booker).status(BookingStatus.REJECTED)
+                .build());
+        bookingRepository.save(Booking.builder().start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1)).item(item).booker(booker).status(BookingStatus.APPROVED)
+                .build());
+
+        List<Integer> itemIds = bookingRepository.findRentedItemIds(booker.getId(), BookingStatus.REJECTED,
+                LocalDateTime.now().plusMinutes(5));
+
+        assertEquals(List.of(item.getId()), itemIds);
+    }
+
+    @Test
+    @DisplayName("Получение начала ближайшего неотклоненного бронирования пользователя")
+    void findNextRentalStart() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        bookingRepository.save(Booking.builder().start(now.plusDays(1)).end(now.plusDays(2)).item(item)
+                .booker(booker).status(BookingStatus.REJECTED).build());
+        bookingRepository.save(Booking.builder().start(now.plusDays(2)).end(now.plusDays(3)).item(item)
+                .booker(booker).status(BookingStatus.WAITING).build());
+
+        assertEquals(now.plusDays(2), bookingRepository.findNextRentalStart(booker.getId(), BookingStatus.REJECTED,
+                now.plusMinutes(5)));
+        assertNull(bookingRepository.findNextRentalStart(booker.getId(), BookingStatus.REJECTED, now.plusDays(3)));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package ru.practicum.server.booking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.server.booking.model.Booking;
+import ru.practicum.server.booking.repository.BookingRepository;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.event.ItemChangedEvent;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final User booker = User.builder().id(1).name("booker").email("booker@user.com").build();
+    private final Item item = Item.builder().id(2).name("Дрель").build();
+    private final Booking booking = Booking.builder().id(3).start(now.plusDays(1)).end(now.plusDays(2)).item(item)
+            .booker(booker).build();
+
+    @BeforeEach
+    void setUp() {
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository, new SimpleMeterRegistry(), 100,
+                Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("Дерево вещи загружается один раз и только из незавершенных бронирований")
+    void hasOverlap_thenLoadedOnceFromUnfinishedBookings() {
+        when(bookingRepository.findAllByItem_IdAndStatusInAndEndAfter(eq(item.getId()),
+                eq(BookingIntervalIndex.ACTIVE_STATUSES), any())).thenReturn(List.of(booking));
+
+        assertTrue(bookingIntervalIndex.hasOverlap(item.getId(), now.plusHours(30), now.plusDays(3)));
+        assertFalse(bookingIntervalIndex.hasOverlap(item.getId(), now.plusDays(2), now.plusDays(3)));
+
+        verify(bookingRepository, times(1)).findAllByItem_IdAndStatusInAndEndAfter(anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Удаление пользователя сбрасывает деревья вещей, которые он бронировал")
+    void evictBookedBy_thenItemReloaded() {
+        when(bookingRepository.findAllByItem_IdAndStatusInAndEndAfter(eq(item.getId()),
+                eq(BookingIntervalIndex.ACTIVE_STATUSES), any())).thenReturn(List.of(booking), List.of());
+        when(bookingRepository.findActiveItemIdsByBookerId(eq(booker.getId()),
+                eq(BookingIntervalIndex.ACTIVE_STATUSES), any())).thenReturn(List.of(item.getId()));
+
+        assertTrue(bookingIntervalIndex.hasOverlap(item.getId(), booking.getStart(), booking.getEnd()));
+        bookingIntervalIndex.evictBookedBy(booker.getId());
+
+        assertFalse(bookingIntervalIndex.hasOverlap(item.getId(), booking.getStart(), booking.getEnd()));
+    }
+
+    @Test
+    @DisplayName("Удаление вещи сбрасывает ее дерево")
+    void onItemChanged_whenItemDeleted_thenItemReloaded() {
+        when(bookingRepository.findAllByItem_IdAndStatusInAndEndAfter(eq(item.getId()),
+                eq(BookingIntervalIndex.ACTIVE_STATUSES), any())).thenReturn(List.of(booking), List.of());
+
+        assertTrue(bookingIntervalIndex.hasOverlap(item.getId(), booking.getStart(), booking.getEnd()));
+        bookingIntervalIndex.onItemChanged(new ItemChangedEvent(ItemDto.builder().id(item.getId()).build(), null));
+
+        assertFalse(bookingIntervalIndex.hasOverlap(item.getId(), booking.getStart(), booking.getEnd()));
+    }
+
+    @Test
+    @DisplayName("Дерево, прочитанное до отклонения бронирования, не попадает в кэш")
+    void hasOverlap_whenRejectedDuringLoad_thenTreeReloaded() {
+        when(bookingRepository.findAllByItem_IdAndStatusInAndEndAfter(eq(item.getId()),
+                eq(BookingIntervalIndex.ACTIVE_STATUSES), any()))
+                .thenAnswer(invocation -> {
+                    bookingIntervalIndex.remove(booking);
+                    return List.of(booking);
+                })
+                .thenReturn(List.of());
+
+        assertFalse(bookingIntervalIndex.hasOverlap(item.getId(), booking.getStart(), booking.getEnd()));
+        verify(bookingRepository, times(2)).findAllByItem_IdAndStatusInAndEndAfter(anyInt(), any(), any());
+    }
+
+}
@@ -0,0 +1,69 @@
+package ru.practicum.server.booking.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingIntervalTreeTest {
+
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private final BookingIntervalTree tree = new BookingIntervalTree();
+
+    @Test
+    @DisplayName("Пересечение полуинтервалов бронирования")
+    void overlaps_whenIntervalsTouch_thenNoOverlap() {
+        tree.add(1, base, base.plusHours(2));
+
+        assertTrue(tree.overlaps(base.plusHours(1), base.plusHours(3)));
+        assertTrue(tree.overlaps(base.minusHours(1), base.plusMinutes(1)));
+        assertFalse(tree.overlaps(base.plusHours(2), base.plusHours(3)));
+        assertFalse(tree.overlaps(base.minusHours(1), base));
+    }
+
+    @Test
+    @DisplayName("Удаление интервала из дерева")
+    void remove_whenIntervalRemoved_thenNoOverlap() {
+        tree.add(1, base, base.plusHours(2));
+        tree.add(2, base.plusHours(5), base.plusHours(6));
+
+        tree.remove(1, base);
+
+        assertEquals(1, tree.size());
+        assertFalse(tree.overlaps(base, base.plusHours(2)));
+        assertTrue(tree.overlaps(base.plusHours(4), base.plusHours(7)));
+    }
+
+    @Test
+    @DisplayName("Поиск пересечений совпадает с полным перебором")
+    void overlaps_whenRandomIntervals_thenSameAsLinearScan() {
+        Random random = new Random(42);
+        List<LocalDateTime[]> intervals = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime start = base.plusMinutes(random.nextInt(100_000));
+            LocalDateTime end = start.plusMinutes(1 + random.nextInt(300));
+            tree.add(i, start, end);
+            intervals.add(new LocalDateTime[]{start, end});
+        }
+        for (int i = 0; i < 500; i += 3) {
+            tree.remove(i, intervals.get(i)[0]);
+            intervals.set(i, null);
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            LocalDateTime start = base.plusMinutes(random.nextInt(100_000));
+            LocalDateTime end = start.plusMinutes(1 + random.nextInt(60));
+            boolean expected = intervals.stream()
+                    .anyMatch(interval -> interval != null && interval[0].isBefore(end) && start.isBefore(interval[1]));
+            assertEquals(expected, tree.overlaps(start, end));
+        }
+    }
+
+}
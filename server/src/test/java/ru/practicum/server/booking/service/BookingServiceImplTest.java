@@ -6,22 +6,34 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.server.booking.dto.BookingDecisionDto;
 import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingMapper;
 import ru.practicum.server.booking.dto.BookingResponseDto;
+import ru.practicum.server.booking.dto.BookingSummaryDto;
 import ru.practicum.server.booking.model.Booking;
+import ru.practicum.server.booking.model.BookingDecisionOutcome;
+import ru.practicum.server.booking.model.BookingState;
 import ru.practicum.server.booking.model.BookingStatus;
 import ru.practicum.server.booking.repository.BookingRepository;
+import ru.practicum.server.exception.ConflictException;
 import ru.practicum.server.exception.NotFoundException;
 import ru.practicum.server.exception.UnknownBookingStateException;
 import ru.practicum.server.exception.ValidationException;
 import ru.practicum.server.item.model.Item;
 import ru.practicum.server.item.repository.ItemRepository;
+import ru.practicum.server.item.service.ItemSummaryService;
+import ru.practicum.server.pagination.PageCursor;
 import ru.practicum.server.user.model.User;
 import ru.practicum.server.user.repository.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +41,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +53,12 @@ class BookingServiceImplTest {
     private BookingRepository bookingRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private RentalHistoryIndex rentalHistoryIndex;
+    @Mock
+    private ItemSummaryService itemSummaryService;
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -58,7 +77,7 @@ class BookingServiceImplTest {
     void saveBooking_returnBooking() {
         when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
         when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
-        when(bookingRepository.save(any())).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(any())).thenReturn(booking);
 
         BookingResponseDto actualBookingResponseDto = bookingService.saveBooking(booker.getId(), bookingDto);
         BookingResponseDto expectBookingResponseDto = BookingMapper.toBookingResponseDto(booking);
@@ -66,7 +85,9 @@ class BookingServiceImplTest {
         assertEquals(actualBookingResponseDto, expectBookingResponseDto);
         verify(userRepository, times(1)).findById(anyInt());
         verify(itemRepository, times(1)).findById(anyInt());
-        verify(bookingRepository, times(1)).save(any());
+        verify(bookingRepository, times(1)).saveAndFlush(any());
+        verify(bookingIntervalIndex, times(1)).add(booking);
+        verify(rentalHistoryIndex, times(1)).add(booking);
     }
 
     @Test
@@ -77,7 +98,7 @@ class BookingServiceImplTest {
         assertThrows(NotFoundException.class, () -> bookingService.saveBooking(booker.getId(), bookingDto));
         verify(userRepository, times(1)).findById(anyInt());
         verify(itemRepository, never()).findById(any());
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -92,7 +113,7 @@ class BookingServiceImplTest {
         assertThrows(NotFoundException.class, () -> bookingService.saveBooking(wrongItemId, bookingDto));
         verify(userRepository, times(1)).findById(anyInt());
         verify(itemRepository, times(1)).findById(anyInt());
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -106,7 +127,7 @@ class BookingServiceImplTest {
         assertThrows(ValidationException.class, () -> bookingService.saveBooking(item.getId(), bookingDto));
         verify(userRepository, times(1)).findById(anyInt());
         verify(itemRepository, times(1)).findById(anyInt());
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -120,7 +141,7 @@ class BookingServiceImplTest {
         assertThrows(NotFoundException.class, () -> bookingService.saveBooking(booker.getId(), bookingDto));
         verify(userRepository, times(1)).findById(anyInt());
         verify(itemRepository, times(1)).findById(anyInt());
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -138,7 +159,58 @@ class BookingServiceImplTest {
 
         verify(userRepository, times(2)).findById(anyInt());
         verify(itemRepository, times(2)).findById(anyInt());
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Ошибка при добавлении бронирования, если вещь уже забронирована на это время")
+    void saveBooking_whenIntervalOverlaps_thanValidationExceptionThrown() {
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
+        when(bookingIntervalIndex.hasOverlap(bookingDto.getItemId(), bookingDto.getStart(), bookingDto.getEnd()))
+                .thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> bookingService.saveBooking(booker.getId(), bookingDto));
+        verify(bookingRepository, never()).saveAndFlush(any());
+        verify(bookingIntervalIndex, never()).add(any());
+    }
+
+    @Test
+    @DisplayName("Ошибка при добавлении бронирования, если его отклонило ограничение базы данных")
+    void saveBooking_whenNoOverlapConstraintViolated_thanValidationExceptionThrown() {
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
+        when(bookingRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("could not execute",
+                new SQLException("conflicting key value violates exclusion constraint \"bookings_no_overlap\"")));
+
+        assertThrows(ValidationException.class, () -> bookingService.saveBooking(booker.getId(), bookingDto));
+        verify(bookingIntervalIndex, never()).add(any());
+    }
+
+    @Test
+    @DisplayName("Ошибка целостности данных, не связанная с пересечением бронирований, пробрасывается дальше")
+    void saveBooking_whenOtherConstraintViolated_thanDataIntegrityViolationExceptionThrown() {
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
+        when(bookingRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("could not execute",
+                new SQLException("NULL not allowed for column \"BOOKER_ID\"")));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> bookingService.saveBooking(booker.getId(), bookingDto));
+    }
+
+    @Test
+    @DisplayName("Проверка пересечения по базе данных под блокировкой вещи")
+    void saveBooking_whenSerializedPerItemAndIntervalOverlaps_thanValidationExceptionThrown() {
+        ReflectionTestUtils.setField(bookingService, "serializePerItem", true);
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
+        when(itemRepository.findLockedById(anyInt())).thenReturn(Optional.of(item));
+        when(bookingRepository.existsOverlapping(eq(bookingDto.getItemId()), eq(bookingDto.getStart()),
+                eq(bookingDto.getEnd()), any())).thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> bookingService.saveBooking(booker.getId(), bookingDto));
+        verify(itemRepository, never()).findById(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -146,7 +218,7 @@ class BookingServiceImplTest {
     void approveBooking_returnApprove() {
         Integer bookerId = booking.getItem().getOwner().getId();
         when(bookingRepository.findById(anyInt())).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any())).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(any())).thenReturn(booking);
 
         BookingResponseDto actualBookingResponseDto = bookingService.approveBooking(bookerId,
                 booking.getId(), true);
@@ -154,7 +226,8 @@ class BookingServiceImplTest {
 
         assertEquals(actualBookingResponseDto, expectBookingResponseDto);
         verify(bookingRepository, times(1)).findById(any());
-        verify(bookingRepository, times(1)).save(any());
+        verify(bookingRepository, times(1)).saveAndFlush(any());
+        verify(itemSummaryService, times(1)).refreshBookings(List.of(booking.getItem().getId()));
     }
 
     @Test
@@ -165,7 +238,7 @@ class BookingServiceImplTest {
         assertThrows(NotFoundException.class, () -> bookingService.approveBooking(booking.getId(),
                 booking.getId(), true));
         verify(bookingRepository, times(1)).findById(any());
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -173,14 +246,16 @@ class BookingServiceImplTest {
     void approveBooking_whenBookingStatusSwitchToRejected_thanReturnApprove() {
         Integer bookerId = booking.getItem().getOwner().getId();
         when(bookingRepository.findById(anyInt())).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any())).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(any())).thenReturn(booking);
 
         BookingResponseDto actualBookingResponseDto = bookingService.approveBooking(bookerId,
                 booking.getId(), false);
 
         assertEquals(actualBookingResponseDto.getStatus(), BookingStatus.REJECTED);
+        verify(bookingIntervalIndex, times(1)).remove(booking);
+        verify(rentalHistoryIndex, times(1)).remove(booking);
         verify(bookingRepository, times(1)).findById(any());
-        verify(bookingRepository, times(1)).save(any());
+        verify(bookingRepository, times(1)).saveAndFlush(any());
     }
 
     @Test
@@ -193,7 +268,7 @@ class BookingServiceImplTest {
         assertThrows(ValidationException.class, () -> bookingService.approveBooking(bookerId,
                 booking.getId(), true));
         verify(bookingRepository, times(1)).findById(any());
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -206,9 +281,93 @@ class BookingServiceImplTest {
         assertThrows(NotFoundException.class, () -> bookingService.approveBooking(bookerId,
                 booking.getId(), true));
         verify(bookingRepository, times(1)).findById(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+
+    @Test
+    @DisplayName("Ошибка при подтверждении бронирования, изменённого параллельным запросом")
+    void approveBooking_whenVersionConflict_thanConflictExceptionThrown() {
+        Integer ownerId = booking.getItem().getOwner().getId();
+        when(bookingRepository.findById(anyInt())).thenReturn(Optional.of(booking));
+        when(bookingRepository.saveAndFlush(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, booking.getId()));
+
+        assertThrows(ConflictException.class, () -> bookingService.approveBooking(ownerId, booking.getId(), false));
+        verify(bookingIntervalIndex, never()).remove(any());
+    }
+
+    @Test
+    @DisplayName("Получение количества бронирований пользователя по состояниям")
+    void getSummaryByUser_returnSummary() {
+        BookingSummaryDto summary = new BookingSummaryDto(6L, 1L, 2L, 3L, 1L, 0L);
+        when(userRepository.existsById(booker.getId())).thenReturn(true);
+        when(bookingRepository.getSummaryByBooker(eq(booker.getId()), any(), eq(BookingStatus.WAITING),
+                eq(BookingStatus.REJECTED))).thenReturn(summary);
+
+        assertEquals(summary, bookingService.getSummaryByUser(booker.getId()));
+    }
+
+    @Test
+    @DisplayName("Ошибка при получении количества бронирований, если владелец вещей не найден")
+    void getSummaryByItemsOwner_whenOwnerNotFound_thanNotFoundExceptionThrown() {
+        when(userRepository.existsById(anyInt())).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> bookingService.getSummaryByItemsOwner(owner.getId()));
+        verify(bookingRepository, never()).getSummaryByItemsOwner(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Отклонение списка бронирований одним запросом")
+    void approveBookings_returnOutcomePerBooking() {
+        Booking waiting = Booking.builder().id(10).start(now.plusDays(1)).end(now.plusDays(2)).item(item)
+                .booker(booker).status(BookingStatus.WAITING).build();
+        Booking approved = Booking.builder().id(11).start(now.plusDays(3)).end(now.plusDays(4)).item(item)
+                .booker(booker).status(BookingStatus.APPROVED).build();
+        Item foreignItem = Item.builder().id(4).owner(booker).build();
+        Booking foreign = Booking.builder().id(12).start(now.plusDays(5)).end(now.plusDays(6)).item(foreignItem)
+                .booker(owner).status(BookingStatus.WAITING).build();
+        List<Integer> ids = List.of(10, 11, 12, 13);
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
+        when(bookingRepository.findLockedByIdInOrderByIdAsc(ids)).thenReturn(List.of(waiting, approved, foreign));
+        when(bookingRepository.updateStatusByItemsOwner(owner.getId(), List.of(10), BookingStatus.WAITING,
+                BookingStatus.REJECTED)).thenReturn(1);
+
+        List<BookingDecisionDto> decisions = bookingService.approveBookings(owner.getId(), ids, false);
+
+        assertEquals(List.of(new BookingDecisionDto(10, BookingDecisionOutcome.REJECTED),
+                new BookingDecisionDto(11, BookingDecisionOutcome.ALREADY_PROCESSED),
+                new BookingDecisionDto(12, BookingDecisionOutcome.NOT_FOUND),
+                new BookingDecisionDto(13, BookingDecisionOutcome.NOT_FOUND)), decisions);
+        verify(bookingIntervalIndex, times(1)).remove(waiting);
+        verify(rentalHistoryIndex, times(1)).remove(waiting);
         verify(bookingRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Бронирование, обработанное параллельно, помечается как уже обработанное")
+    void approveBookings_whenConcurrentlyProcessed_thenAlreadyProcessedReturned() {
+        Booking rejected = Booking.builder().id(10).start(now.plusDays(1)).end(now.plusDays(2)).item(item)
+                .booker(booker).status(BookingStatus.REJECTED).build();
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
+        when(bookingRepository.findLockedByIdInOrderByIdAsc(List.of(10))).thenReturn(List.of(rejected));
+
+        List<BookingDecisionDto> decisions = bookingService.approveBookings(owner.getId(), List.of(10), false);
+
+        assertEquals(List.of(new BookingDecisionDto(10, BookingDecisionOutcome.ALREADY_PROCESSED)), decisions);
+        verify(bookingRepository, never()).updateStatusByItemsOwner(any(), any(), any(), any());
+        verify(bookingIntervalIndex, never()).remove(any());
+        verify(rentalHistoryIndex, never()).remove(any());
+    }
+
+    @Test
+    @DisplayName("Ошибка при обработке списка бронирований, если владелец не найден")
+    void approveBookings_whenOwnerNotFound_thanNotFoundExceptionThrown() {
+        when(userRepository.existsById(anyInt())).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> bookingService.approveBookings(owner.getId(), List.of(1), true));
+        verify(bookingRepository, never()).updateStatusByItemsOwner(any(), any(), any(), any());
+    }
 
     @Test
     @DisplayName("Получение бронирования по id")
@@ -330,7 +489,8 @@ class BookingServiceImplTest {
     @DisplayName("Получение списка бронирований со статусом 'Текущие'")
     void getByItemsOwner_whenBookingByStateIsCurrent_thanReturnListOfBookings() {
         when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItem_Owner(any(User.class), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findByItem_OwnerAndStartBeforeAndEndAfter(any(User.class), any(LocalDateTime.class),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(booking));
 
         booking.setStart(now.minusHours(1));
         booking.setEnd(now.plusHours(1));
@@ -340,14 +500,16 @@ class BookingServiceImplTest {
 
         assertEquals(actualBookingResponseDto, expectBookingResponseDto);
         verify(userRepository, times(1)).findById(anyInt());
-        verify(bookingRepository, times(1)).findByItem_Owner(any(User.class), any(Pageable.class));
+        verify(bookingRepository, times(1)).findByItem_OwnerAndStartBeforeAndEndAfter(any(User.class),
+                any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
     }
 
     @Test
     @DisplayName("Получение списка бронирований со статусом 'Прошедние'")
     void getByItemsOwner_whenBookingByStateIsPAST_thanReturnListOfBookings() {
         when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItem_Owner(any(User.class), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findByItem_OwnerAndEndBefore(any(User.class), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(List.of(booking));
 
         booking.setStart(now.minusHours(2));
         booking.setEnd(now.minusHours(1));
@@ -357,14 +519,16 @@ class BookingServiceImplTest {
 
         assertEquals(actualBookingResponseDto, expectBookingResponseDto);
         verify(userRepository, times(1)).findById(anyInt());
-        verify(bookingRepository, times(1)).findByItem_Owner(any(User.class), any(Pageable.class));
+        verify(bookingRepository, times(1)).findByItem_OwnerAndEndBefore(any(User.class), any(LocalDateTime.class),
+                any(Pageable.class));
     }
 
     @Test
     @DisplayName("Получение списка бронирований со статусом 'Будущие'")
     void getByItemsOwner_whenBookingByStateIsFUTURE_thanReturnListOfBookings() {
         when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItem_Owner(any(User.class), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findByItem_OwnerAndStartAfter(any(User.class), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(List.of(booking));
 
         booking.setStart(now.plusHours(1));
         booking.setEnd(now.plusHours(2));
@@ -374,14 +538,16 @@ class BookingServiceImplTest {
 
         assertEquals(actualBookingResponseDto, expectBookingResponseDto);
         verify(userRepository, times(1)).findById(anyInt());
-        verify(bookingRepository, times(1)).findByItem_Owner(any(User.class), any(Pageable.class));
+        verify(bookingRepository, times(1)).findByItem_OwnerAndStartAfter(any(User.class), any(LocalDateTime.class),
+                any(Pageable.class));
     }
 
     @Test
     @DisplayName("Получение списка бронирований со статусом 'В ожидании'")
     void getByItemsOwner_whenBookingByStateIsWAITING_thanReturnListOfBookings() {
         when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItem_Owner(any(User.class), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findByItem_OwnerAndStatus(any(User.class), eq(BookingStatus.WAITING),
+                any(Pageable.class))).thenReturn(List.of(booking));
 
         booking.setStart(now.plusHours(1));
         booking.setEnd(now.plusHours(2));
@@ -391,14 +557,16 @@ class BookingServiceImplTest {
 
         assertEquals(actualBookingResponseDto, expectBookingResponseDto);
         verify(userRepository, times(1)).findById(anyInt());
-        verify(bookingRepository, times(1)).findByItem_Owner(any(User.class), any(Pageable.class));
+        verify(bookingRepository, times(1)).findByItem_OwnerAndStatus(any(User.class), eq(BookingStatus.WAITING),
+                any(Pageable.class));
     }
 
     @Test
     @DisplayName("Получение списка бронирований со статусом 'Отклонены'")
     void getByItemsOwner_whenBookingByStateIsREJECTED_thanReturnListOfBookings() {
         when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItem_Owner(any(User.class), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findByItem_OwnerAndStatus(any(User.class), eq(BookingStatus.REJECTED),
+                any(Pageable.class))).thenReturn(List.of(booking));
 
         booking.setStart(now.plusHours(1));
         booking.setEnd(now.plusHours(2));
@@ -409,7 +577,44 @@ class BookingServiceImplTest {
 
         assertEquals(actualBookingResponseDto, expectBookingResponseDto);
         verify(userRepository, times(1)).findById(anyInt());
-        verify(bookingRepository, times(1)).findByItem_Owner(any(User.class), any(Pageable.class));
+        verify(bookingRepository, times(1)).findByItem_OwnerAndStatus(any(User.class), eq(BookingStatus.REJECTED),
+                any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Получение списка бронирований пользователя по курсору")
+    void getByUserAfter_returnListOfBookings() {
+        PageCursor cursor = new PageCursor(now.truncatedTo(ChronoUnit.MICROS), 10);
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
+        when(bookingRepository.findByBookerAfter(eq(booker.getId()), eq(BookingState.ALL), any(LocalDateTime.class),
+                eq(cursor), eq(10))).thenReturn(List.of(booking));
+
+        List<BookingResponseDto> actualBookingResponseDto = bookingService.getByUserAfter(
+                booker.getId(), "ALL", cursor.encode(), 10);
+
+        assertEquals(List.of(BookingMapper.toBookingResponseDto(booking)), actualBookingResponseDto);
+    }
+
+    @Test
+    @DisplayName("Получение списка бронирований владельца вещи по курсору")
+    void getByItemsOwnerAfter_returnListOfBookings() {
+        PageCursor cursor = new PageCursor(now.truncatedTo(ChronoUnit.MICROS), 10);
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(owner));
+        when(bookingRepository.findByItemsOwnerAfter(eq(owner.getId()), eq(BookingState.WAITING),
+                any(LocalDateTime.class), eq(cursor), eq(5))).thenReturn(List.of(booking));
+
+        List<BookingResponseDto> actualBookingResponseDto = bookingService.getByItemsOwnerAfter(
+                owner.getId(), "WAITING", cursor.encode(), 5);
+
+        assertEquals(List.of(BookingMapper.toBookingResponseDto(booking)), actualBookingResponseDto);
+    }
+
+    @Test
+    @DisplayName("Ошибка получения списка бронирований с некорректным курсором")
+    void getByUserAfter_whenCursorIsMalformed_thanValidationExceptionThrown() {
+        assertThrows(ValidationException.class, () -> bookingService.getByUserAfter(
+                booker.getId(), "ALL", "not-a-cursor", 10));
+        verify(bookingRepository, never()).findByBookerAfter(any(), any(), any(), any(), anyInt());
     }
 
 }
\ No newline at end of file
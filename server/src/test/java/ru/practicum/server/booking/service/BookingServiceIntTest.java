@@ -6,19 +6,32 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.server.booking.dto.BookingDecisionDto;
 import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingResponseDto;
+import ru.practicum.server.booking.model.BookingDecisionOutcome;
 import ru.practicum.server.booking.model.BookingStatus;
+import ru.practicum.server.exception.ConflictException;
+import ru.practicum.server.exception.ValidationException;
 import ru.practicum.server.item.dto.ItemDto;
 import ru.practicum.server.item.service.ItemService;
 import ru.practicum.server.user.dto.UserDto;
 import ru.practicum.server.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
 @SpringBootTest(properties = "db.name=test")
@@ -30,7 +43,7 @@ class BookingServiceIntTest {
     private final UserService userService;
     private final ItemService itemService;
 
-    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
     private final UserDto ownerDto = UserDto.builder().name("owner").email("owner@user.com").build();
     private final UserDto bookerDto = UserDto.builder().name("booker").email("booker@user.com").build();
     private final ItemDto itemDto = ItemDto.builder().name("itemName")
@@ -55,4 +68,131 @@ class BookingServiceIntTest {
         assertEquals(bookings.get(0).getItem().getId(), savedItemDto.getId());
         assertEquals(bookings.get(0).getBooker().getId(), savedBookerDto.getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Подтверждение списка бронирований владельцем вещи")
+    void approveBookings() {
+        UserDto savedOwnerDto = userService.saveUser(ownerDto);
+        UserDto savedBookerDto = userService.saveUser(bookerDto);
+        itemService.saveItem(savedOwnerDto.getId(), itemDto);
+        BookingResponseDto first = bookingService.saveBooking(savedBookerDto.getId(), bookingDto);
+        BookingResponseDto second = bookingService.saveBooking(savedBookerDto.getId(), BookingDto.builder()
+                .start(now.plusDays(1)).end(now.plusDays(2)).itemId(1).build());
+        bookingService.approveBooking(savedOwnerDto.getId(), second.getId(), false);
+
+        List<BookingDecisionDto> decisions = bookingService.approveBookings(savedOwnerDto.getId(),
+                List.of(first.getId(), second.getId()), true);
+        List<BookingDecisionDto> foreignDecisions = bookingService.approveBookings(savedBookerDto.getId(),
+                List.of(first.getId()), false);
+
+        assertEquals(List.of(new BookingDecisionDto(first.getId(), BookingDecisionOutcome.APPROVED),
+                new BookingDecisionDto(second.getId(), BookingDecisionOutcome.ALREADY_PROCESSED)), decisions);
+        assertEquals(List.of(new BookingDecisionDto(first.getId(), BookingDecisionOutcome.NOT_FOUND)),
+                foreignDecisions);
+        assertEquals(BookingStatus.APPROVED, bookingService.getById(savedOwnerDto.getId(), first.getId()).getStatus());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Ошибка бронирования вещи на пересекающийся интервал")
+    void saveBooking_whenIntervalOverlaps_thenValidationExceptionThrown() {
+        UserDto savedOwnerDto = userService.saveUser(ownerDto);
+        UserDto savedBookerDto = userService.saveUser(bookerDto);
+        itemService.saveItem(savedOwnerDto.getId(), itemDto);
+        bookingService.saveBooking(savedBookerDto.getId(), bookingDto);
+        BookingDto overlapping = BookingDto.builder()
+                .start(now.plusMinutes(90)).end(now.plusHours(3)).itemId(1).build();
+        BookingDto adjacent = BookingDto.builder()
+                .start(now.plusHours(2)).end(now.plusHours(3)).itemId(1).build();
+
+        assertThrows(ValidationException.class, () -> bookingService.saveBooking(savedBookerDto.getId(), overlapping));
+        assertEquals(BookingStatus.WAITING, bookingService.saveBooking(savedBookerDto.getId(), adjacent).getStatus());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("После удаления арендатора его интервал снова доступен для бронирования")
+    void saveBooking_whenBookerDeleted_thenIntervalFree() {
+        UserDto savedOwnerDto = userService.saveUser(ownerDto);
+        UserDto savedBookerDto = userService.saveUser(bookerDto);
+        UserDto otherBookerDto = userService.saveUser(UserDto.builder().name("other").email("other@user.com")
+                .build());
+        itemService.saveItem(savedOwnerDto.getId(), itemDto);
+        bookingService.saveBooking(savedBookerDto.getId(), bookingDto);
+
+        userService.delete(savedBookerDto.getId());
+
+        assertEquals(BookingStatus.WAITING, bookingService.saveBooking(otherBookerDto.getId(), bookingDto)
+                .getStatus());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Из двух одновременных бронирований одного интервала сохраняется только одно")
+    void saveBooking_whenConcurrentOverlappingRequests_thenOnlyOneSaved() throws Exception {
+        UserDto savedOwnerDto = userService.saveUser(ownerDto);
+        UserDto savedBookerDto = userService.saveUser(bookerDto);
+        ItemDto savedItemDto = itemService.saveItem(savedOwnerDto.getId(), itemDto);
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    bookingService.saveBooking(savedBookerDto.getId(), bookingDto);
+                    return true;
+                } catch (ValidationException e) {
+                    return false;
+                }
+            }));
+        }
+        ready.countDown();
+        int saved = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                saved++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, saved);
+        assertEquals(1, bookingService.getByItemsOwner(savedOwnerDto.getId(), "ALL", 0, 10).size());
+        assertEquals(savedItemDto.getId(), bookingDto.getItemId());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Из двух одновременных решений по бронированию применяется только одно")
+    void approveBooking_whenConcurrentDecisions_thenOnlyOneApplied() throws Exception {
+        UserDto savedOwnerDto = userService.saveUser(ownerDto);
+        UserDto savedBookerDto = userService.saveUser(bookerDto);
+        itemService.saveItem(savedOwnerDto.getId(), itemDto);
+        Integer bookingId = bookingService.saveBooking(savedBookerDto.getId(), bookingDto).getId();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (boolean approved : List.of(true, false)) {
+            results.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    bookingService.approveBooking(savedOwnerDto.getId(), bookingId, approved);
+                    return true;
+                } catch (ConflictException | ValidationException e) {
+                    return false;
+                }
+            }));
+        }
+        ready.countDown();
+        int applied = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                applied++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, applied);
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.server.booking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.server.booking.model.Booking;
+import ru.practicum.server.booking.model.BookingStatus;
+import ru.practicum.server.booking.repository.BookingRepository;
+import ru.practicum.server.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RentalHistoryIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private RentalHistoryIndex rentalHistoryIndex;
+
+    private final User booker = User.builder().id(1).name("booker").email("booker@user.com").build();
+
+    @BeforeEach
+    void setUp() {
+        rentalHistoryIndex = new RentalHistoryIndex(bookingRepository, new SimpleMeterRegistry(), 100);
+    }
+
+    @Test
+    @DisplayName("Арендованная вещь находится в истории без обращения к базе данных")
+    void hasRented_whenItemLoaded_thenAnsweredFromMemory() {
+        when(bookingRepository.findRentedItemIds(eq(booker.getId()), eq(BookingStatus.REJECTED), any()))
+                .thenReturn(List.of(9, 3, 5));
+
+        assertTrue(rentalHistoryIndex.hasRented(booker.getId(), 5));
+        assertTrue(rentalHistoryIndex.hasRented(booker.getId(), 9));
+
+        verify(bookingRepository, times(1)).findRentedItemIds(anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("До начала следующего бронирования отсутствие вещи в истории проверяется без базы данных")
+    void hasRented_whenNextBookingNotStarted_thenMissAnsweredFromMemory() {
+        when(bookingRepository.findRentedItemIds(eq(booker.getId()), eq(BookingStatus.REJECTED), any()))
+                .thenReturn(List.of(3));
+        when(bookingRepository.findNextRentalStart(eq(booker.getId()), eq(BookingStatus.REJECTED), any()))
+                .thenReturn(LocalDateTime.now().plusHours(1));
+
+        assertFalse(rentalHistoryIndex.hasRented(booker.getId(), 7));
+        assertFalse(rentalHistoryIndex.hasRented(booker.getId(), 7));
+        assertTrue(rentalHistoryIndex.hasRented(booker.getId(), 3));
+
+        verify(bookingRepository, times(1)).findRentedItemIds(anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("После начала следующего бронирования история загружается заново")
+    void hasRented_whenNextBookingStarted_thenHistoryReloaded() {
+        when(bookingRepository.findRentedItemIds(eq(booker.getId()), eq(BookingStatus.REJECTED), any()))
+                .thenReturn(List.of(3), List.of(3, 4));
+        when(bookingRepository.findNextRentalStart(eq(booker.getId()), eq(BookingStatus.REJECTED), any()))
+                .thenReturn(LocalDateTime.now(), (LocalDateTime) null);
+
+        assertFalse(rentalHistoryIndex.hasRented(booker.getId(), 4));
+        assertTrue(rentalHistoryIndex.hasRented(booker.getId(), 4));
+        assertTrue(rentalHistoryIndex.hasRented(booker.getId(), 4));
+
+        verify(bookingRepository, times(2)).findRentedItemIds(anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Новое и отклоненное бронирование сбрасывают историю пользователя")
+    void addAndRemove_thenHistoryReloaded() {
+        when(bookingRepository.findRentedItemIds(eq(booker.getId()), eq(BookingStatus.REJECTED), any()))
+                .thenReturn(List.of(3), List.of(3, 4), List.of(4));
+
+        assertTrue(rentalHistoryIndex.hasRented(booker.getId(), 3));
+        rentalHistoryIndex.add(Booking.builder().id(2).booker(booker).build());
+        assertTrue(rentalHistoryIndex.hasRented(booker.getId(), 4));
+        rentalHistoryIndex.remove(Booking.builder().id(1).booker(booker).build());
+
+        assertFalse(rentalHistoryIndex.hasRented(booker.getId(), 3));
+        verify(bookingRepository, times(3)).findRentedItemIds(anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("История, прочитанная до отклонения бронирования, не попадает в кэш")
+    void hasRented_whenRejectedDuringLoad_thenLoadedHistoryNotCached() {
+        when(bookingRepository.findRentedItemIds(eq(booker.getId()), eq(BookingStatus.REJECTED), any()))
+                .thenAnswer(invocation -> {
+                    rentalHistoryIndex.remove(Booking.builder().id(1).booker(booker).build());
+                    return List.of(3);
+                })
+                .thenReturn(List.of());
+
+        assertTrue(rentalHistoryIndex.hasRented(booker.getId(), 3));
+        assertFalse(rentalHistoryIndex.hasRented(booker.getId(), 3));
+
+        verify(bookingRepository, times(2)).findRentedItemIds(anyInt(), any(), any());
+    }
+
+}
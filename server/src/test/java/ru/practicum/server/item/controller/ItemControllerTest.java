@@ -10,13 +10,17 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.server.exception.NotFoundException;
 import ru.practicum.server.item.dto.CommentDto;
 import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.dto.TimeSlotDto;
 import ru.practicum.server.item.service.CommentService;
 import ru.practicum.server.item.service.ItemService;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -62,6 +66,72 @@ class ItemControllerTest {
         verify(itemService, times(1)).saveItem(anyInt(), any(ItemDto.class));
     }
 
+    @SneakyThrows
+    @Test
+    @DisplayName("Выгрузка вещей пользователя в формате NDJSON")
+    @SuppressWarnings("unchecked")
+    void exportItemsByUserId() {
+        doAnswer(invocation -> {
+            Consumer<ItemDto> consumer = invocation.getArgument(1);
+            consumer.accept(goodItemDto);
+            consumer.accept(badItemDto);
+            return null;
+        }).when(itemService).exportByUserId(anyInt(), any(Consumer.class));
+
+        mockMvc.perform(get("/items/export")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string(objectMapper.writeValueAsString(goodItemDto) + "\n" +
+                        objectMapper.writeValueAsString(badItemDto) + "\n"));
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Ошибка выгрузки вещей, если пользователь не найден")
+    @SuppressWarnings("unchecked")
+    void exportItemsByUserId_whenUserNotFound_thenNotFound() {
+        doThrow(new NotFoundException("Пользователь с id 1 не найден"))
+                .when(itemService).exportByUserId(anyInt(), any(Consumer.class));
+
+        mockMvc.perform(get("/items/export")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Ошибка выгрузки результатов поиска возвращается в формате JSON")
+    @SuppressWarnings("unchecked")
+    void exportSearchItem_whenNotFound_thenNotFound() {
+        doThrow(new NotFoundException("Вещи не найдены"))
+                .when(itemService).exportSearch(anyString(), any(Consumer.class));
+
+        mockMvc.perform(get("/items/search/export")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("text", "дрель"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Пакетное добавление вещей")
+    void saveNewItems() {
+        when(itemService.saveItems(anyInt(), anyList())).thenReturn(List.of(1, 2));
+
+        mockMvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(objectMapper.writeValueAsString(List.of(goodItemDto, badItemDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[1, 2]"));
+
+        verify(itemService).saveItems(1, List.of(goodItemDto, badItemDto));
+    }
+
     @SneakyThrows
     @Test
     @DisplayName("Получение списка вещей пользователя")
@@ -78,6 +148,25 @@ class ItemControllerTest {
         verify(itemService).getAllByUserId(anyInt(), anyInt(), anyInt());
     }
 
+    @SneakyThrows
+    @Test
+    @DisplayName("Получение свободных интервалов вещи")
+    void getItemAvailability() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(2);
+        when(itemService.getAvailability(1, from, to)).thenReturn(List.of(new TimeSlotDto(from, to)));
+
+        mockMvc.perform(get("/items/{itemId}/availability", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-03T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].start", is("2030-01-01T10:00:00")));
+
+        verify(itemService, times(1)).getAvailability(1, from, to);
+    }
+
     @SneakyThrows
     @Test
     @DisplayName("Получение вещи по id")
@@ -138,6 +227,36 @@ class ItemControllerTest {
         verify(itemService, times(1)).searchItem(anyInt(), anyString(), anyInt(), anyInt());
     }
 
+    @SneakyThrows
+    @Test
+    @DisplayName("Подсказки по началу названия вещи")
+    void suggestItemNames() {
+        when(itemService.suggestNames("др", 5)).thenReturn(List.of("Дрель", "Дрель ударная"));
+
+        mockMvc.perform(get("/items/suggest")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("prefix", "др")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0]").value("Дрель"));
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Получение ленты комментариев к вещи")
+    void getComments() {
+        when(commentService.getComments(1, 20, 5)).thenReturn(List.of(commentDto));
+
+        mockMvc.perform(get("/items/{itemId}/comments", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .param("after", "20")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(commentDto))));
+    }
+
     @SneakyThrows
     @Test
     @DisplayName("Добавление комментария к вещи после бронирования")
@@ -0,0 +1,128 @@
+package ru.practicum.server.item.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.server.booking.dto.BookingMapper;
+import ru.practicum.server.booking.model.Booking;
+import ru.practicum.server.booking.model.BookingStatus;
+import ru.practicum.server.booking.repository.BookingRepository;
+import ru.practicum.server.item.dto.CommentMapper;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.dto.ItemMapper;
+import ru.practicum.server.item.model.Comment;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.user.model.User;
+import ru.practicum.server.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(ItemReadRepository.class)
+class ItemReadRepositoryTest {
+
+    @Autowired
+    private ItemReadRepository itemReadRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private final User owner = User.builder().name("owner").email("owner@user.com").build();
+    private final User booker = User.builder().name("booker").email("booker@user.com").build();
+    private final Item item = Item.builder().name("Дрель").description("Простая дрель").available(true)
+            .owner(owner).build();
+    private final Booking past = Booking.builder().start(now.minusDays(3)).end(now.minusDays(2)).item(item)
+            .booker(booker).status(BookingStatus.APPROVED).build();
+    private final Booking last = Booking.builder().start(now.minusDays(1)).end(now.plusDays(1)).item(item)
+            .booker(booker).status(BookingStatus.APPROVED).build();
+    private final Booking next = Booking.builder().start(now.plusDays(2)).end(now.plusDays(3)).item(item)
+            .booker(booker).status(BookingStatus.APPROVED).build();
+    private final Booking rejected = Booking.builder().start(now.plusHours(1)).end(now.plusHours(2)).item(item)
+            .booker(booker).status(BookingStatus.REJECTED).build();
+    private final Comment first = Comment.builder().text("Отличная дрель").item(item).author(booker)
+            .created(now.minusDays(2)).build();
+    private final Comment second = Comment.builder().text("Сверлит бетон").item(item).author(booker)
+            .created(now.minusHours(1)).build();
+
+    @BeforeEach
+    void save() {
+        userRepository.save(owner);
+        userRepository.save(booker);
+        itemRepository.save(item);
+        bookingRepository.saveAll(List.of(past, last, next, rejected));
+        commentRepository.saveAllAndFlush(List.of(first, second));
+    }
+
+    @Test
+    @DisplayName("Владелец получает вещь с бронированиями и комментариями одним запросом")
+    void findItemDetails_whenOwner_thenBookingsAndCommentsReturned() {
+        ItemDto expected = ItemMapper.toItemDto(item, BookingMapper.toBookingDto(last),
+                BookingMapper.toBookingDto(next),
+                List.of(CommentMapper.toCommentDto(first), CommentMapper.toCommentDto(second)));
+        expected.setCommentCount(2);
+
+        assertEquals(expected, itemReadRepository.findItemDetails(item.getId(), owner.getId(), now).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Другой пользователь получает вещь без бронирований")
+    void findItemDetails_whenNotOwner_thenBookingsHidden() {
+        ItemDto expected = ItemMapper.toItemDto(item,
+                List.of(CommentMapper.toCommentDto(first), CommentMapper.toCommentDto(second)));
+        expected.setCommentCount(2);
+
+        assertEquals(expected, itemReadRepository.findItemDetails(item.getId(), booker.getId(), now).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("В карточку вещи попадают только последние комментарии и их общее число")
+    void findItemDetails_whenCommentLimitReached_thenLatestCommentsReturned() {
+        ItemReadRepository target = AopTestUtils.getTargetObject(itemReadRepository);
+        ReflectionTestUtils.setField(target, "latestCommentsLimit", 1);
+
+        ItemDto actual = itemReadRepository.findItemDetails(item.getId(), booker.getId(), now).orElseThrow();
+
+        assertEquals(List.of(CommentMapper.toCommentDto(second)), actual.getComments());
+        assertEquals(2, actual.getCommentCount());
+    }
+
+    @Test
+    @DisplayName("Последние комментарии и их число по списку вещей")
+    void findLatestComments_thenLimitedPerItem() {
+        Item drill = Item.builder().name("Шуруповерт").description("Без комментариев").available(true)
+                .owner(owner).build();
+        itemRepository.saveAndFlush(drill);
+
+        Map<Integer, ItemComments> comments = itemReadRepository.findLatestComments(
+                List.of(item.getId(), drill.getId()), 1);
+
+        assertEquals(Set.of(item.getId()), comments.keySet());
+        assertEquals(2, comments.get(item.getId()).getCount());
+        assertEquals(List.of(CommentMapper.toCommentDto(second)), comments.get(item.getId()).getLatest());
+    }
+
+    @Test
+    @DisplayName("Поиск несуществующей вещи")
+    void findItemDetails_whenItemNotFound_thenEmpty() {
+        assertTrue(itemReadRepository.findItemDetails(item.getId() + 100, owner.getId(), now).isEmpty());
+    }
+
+}
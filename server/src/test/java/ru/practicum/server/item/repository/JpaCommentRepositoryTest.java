@@ -6,6 +6,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.server.item.model.Comment;
 import ru.practicum.server.item.model.Item;
 import ru.practicum.server.user.model.User;
@@ -15,7 +16,6 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @DataJpaTest
 class JpaCommentRepositoryTest {
@@ -54,52 +54,17 @@ class JpaCommentRepositoryTest {
     }
 
     @Test
-    @DisplayName("Получение списка комментариев к вещи, отсортированных по id в возрастающем порядке")
-    void findByItemOrderByIdAsc() {
-        List<Comment> actualComments = commentRepository.findByItemOrderByIdAsc(item);
-        assertEquals(2, actualComments.size());
-        assertEquals(actualComments.get(0).getText(), "Крутая дрель. Сделал 100 дыр");
-        assertEquals(actualComments.get(0).getItem(), item);
-        assertEquals(actualComments.get(0).getItem().getOwner(), owner);
-        assertEquals(actualComments.get(0).getAuthor(), author);
-        assertNotNull(actualComments.get(0).getCreated());
-
-        assertEquals(actualComments.get(1).getText(), "Плохая дрель. Отвалилась кнопка");
-        assertEquals(actualComments.get(1).getItem(), item);
-        assertEquals(actualComments.get(1).getItem().getOwner(), owner);
-        assertEquals(actualComments.get(1).getAuthor(), author);
-        assertNotNull(actualComments.get(1).getCreated());
+    @DisplayName("Лента комментариев от новых к старым с курсором по id")
+    void findByItemIdOrderByIdDesc_withCursor() {
+        List<Comment> firstPage = commentRepository.findByItemIdOrderByIdDesc(item.getId(), Pageable.ofSize(1));
+        List<Comment> secondPage = commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(item.getId(),
+                firstPage.get(0).getId(), Pageable.ofSize(1));
+        List<Comment> lastPage = commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(item.getId(),
+                secondPage.get(0).getId(), Pageable.ofSize(1));
+
+        assertEquals(commentNegative.getId(), firstPage.get(0).getId());
+        assertEquals(commentPositive.getId(), secondPage.get(0).getId());
+        assertEquals(0, lastPage.size());
     }
 
-    @Test
-    @DisplayName("Получение списка комментариев для списка вещей")
-    void findByItemIn() {
-        Item item1 = Item.builder().name("Отвертка").description("Аккумуляторная отвертка").available(true)
-                .owner(owner).build();
-        itemRepository.save(item1);
-        Comment commentPositive1 = Comment.builder().text("Дрель улёт. Улетела в окно").item(item1)
-                .author(author).created(LocalDateTime.now().plusHours(2)).build();
-        commentRepository.save(commentPositive1);
-
-        List<Comment> actualComments = commentRepository.findByItemIn(List.of(item, item1));
-
-        assertEquals(3, actualComments.size());
-        assertEquals(actualComments.get(0).getText(), "Крутая дрель. Сделал 100 дыр");
-        assertEquals(actualComments.get(0).getItem(), item);
-        assertEquals(actualComments.get(0).getItem().getOwner(), owner);
-        assertEquals(actualComments.get(0).getAuthor(), author);
-        assertEquals(actualComments.get(0).getCreated(), commentPositive.getCreated());
-
-        assertEquals(actualComments.get(1).getText(), "Плохая дрель. Отвалилась кнопка");
-        assertEquals(actualComments.get(1).getItem(), item);
-        assertEquals(actualComments.get(1).getItem().getOwner(), owner);
-        assertEquals(actualComments.get(1).getAuthor(), author);
-        assertEquals(actualComments.get(1).getCreated(), commentNegative.getCreated());
-
-        assertEquals(actualComments.get(2).getText(), "Дрель улёт. Улетела в окно");
-        assertEquals(actualComments.get(2).getItem(), item1);
-        assertEquals(actualComments.get(2).getItem().getOwner(), owner);
-        assertEquals(actualComments.get(2).getAuthor(), author);
-        assertEquals(actualComments.get(2).getCreated(), commentPositive1.getCreated());
-    }
-}
\ No newline at end of file
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.server.item.model.Item;
 import ru.practicum.server.request.model.ItemRequest;
@@ -15,6 +16,8 @@ import ru.practicum.server.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -45,19 +48,6 @@ class JpaItemRepositoryTest {
         itemRequestRepository.deleteAll();
     }
 
-    @Test
-    @DisplayName("Получение списка вещей пользователя")
-    void findAllByOwnerId() {
-        Integer id = owner.getId();
-        List<Item> actualItems = itemRepository.findAllByOwnerIdOrderByIdAsc(id, Pageable.ofSize(1));
-        assertEquals(1, actualItems.size());
-        assertEquals(actualItems.get(0).getName(), "Дрель");
-        assertEquals(actualItems.get(0).getDescription(), "Простая дрель");
-        assertEquals(actualItems.get(0).getAvailable(), true);
-        assertEquals(actualItems.get(0).getOwner(), owner);
-        assertNull(actualItems.get(0).getRequestId());
-    }
-
     @Test
     @DisplayName("Поиск вещи по названию или описанию")
     void search() {
@@ -70,6 +60,38 @@ class JpaItemRepositoryTest {
         assertNull(actualItems.get(0).getRequestId());
     }
 
+    @Test
+    @DisplayName("Поиск подстроки в названии или описании совпадает с поиском JPQL")
+    void searchContaining() {
+        Item unavailable = Item.builder().name("Простая пила").description("Сломана").available(false)
+                .owner(owner).build();
+        Item saw = Item.builder().name("Пила").description("Очень простая пила").available(true)
+                .owner(owner).build();
+        itemRepository.save(unavailable);
+        itemRepository.save(saw);
+
+        List<Item> actualItems = itemRepository.searchContaining("ПроСт", Pageable.ofSize(10));
+
+        assertEquals(List.of(item, saw), actualItems);
+        assertEquals(itemRepository.search("ПроСт", Pageable.ofSize(10)), actualItems);
+        assertEquals(List.of(saw), itemRepository.searchContaining("ПроСт", PageRequest.of(1, 1)));
+    }
+
+    @Test
+    @DisplayName("Потоковая выгрузка вещей владельца и результатов поиска")
+    void streamAllByOwnerIdAndStreamSearch() {
+        Item saw = Item.builder().name("Пила").description("Очень простая пила").available(true)
+                .owner(owner).build();
+        itemRepository.save(saw);
+
+        try (Stream<Item> items = itemRepository.streamAllByOwnerIdOrderByIdAsc(owner.getId())) {
+            assertEquals(List.of(item, saw), items.collect(Collectors.toList()));
+        }
+        try (Stream<Item> items = itemRepository.streamSearch("ПроСт")) {
+            assertEquals(itemRepository.search("ПроСт", Pageable.ofSize(10)), items.collect(Collectors.toList()));
+        }
+    }
+
     @Test
     @DisplayName("Получение списка вещей по списку запросов")
     void findAllByRequestIdIn() {
@@ -77,7 +99,7 @@ class JpaItemRepositoryTest {
         userRepository.save(requestor);
         ItemRequest itemRequest = ItemRequest.builder().description("нужна отвертка").requestor(requestor)
                 .created(LocalDateTime.now()).build();
-        itemRequestRepository.save(itemRequest);
+        itemRequestRepository.saveAndFlush(itemRequest);
         Item itemForRequest = Item.builder().name("Отвертка").description("Аккумуляторная отвертка")
                 .available(true).owner(owner).requestId(itemRequest.getId()).build();
         itemRepository.save(itemForRequest);
@@ -0,0 +1,43 @@
+package ru.practicum.server.item.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.repository.ItemRepository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+class FullTextItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private FullTextItemSearchEngine searchEngine;
+
+    private final ItemDto drill = ItemDto.builder().id(1).name("Дрель").description("Аккумуляторная дрель, 18 В")
+            .available(true).build();
+
+    @Test
+    @DisplayName("Вещь подходит, если слово запроса совпадает со словом вещи с точностью до окончания")
+    void matches_whenWordFormsDiffer_thenTrue() {
+        assertTrue(searchEngine.matches("дрели", drill));
+        assertTrue(searchEngine.matches("Аккумуляторные отвертки", drill));
+    }
+
+    @Test
+    @DisplayName("Вещь без общих слов с запросом и недоступная вещь не подходят")
+    void matches_whenNoCommonWordsOrUnavailable_thenFalse() {
+        ItemDto unavailableDrill = ItemDto.builder().id(2).name(drill.getName()).description(drill.getDescription())
+                .available(false).build();
+
+        assertFalse(searchEngine.matches("пила", drill));
+        assertFalse(searchEngine.matches("дрель", unavailableDrill));
+    }
+
+}
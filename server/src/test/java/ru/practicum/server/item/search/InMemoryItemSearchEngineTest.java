@@ -0,0 +1,92 @@
+package ru.practicum.server.item.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.dto.ItemMapper;
+import ru.practicum.server.item.event.ItemChangedEvent;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.item.repository.ItemRepository;
+import ru.practicum.server.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private InMemoryItemSearchEngine searchEngine;
+
+    private final User owner = User.builder().id(1).name("owner").email("owner@user.com").build();
+    private final Item drill = Item.builder().id(1).name("Дрель").description("Простая дрель").available(true)
+            .owner(owner).build();
+    private final Item saw = Item.builder().id(2).name("Пила").description("Очень простая пила").available(true)
+            .owner(owner).build();
+    private final Item hammer = Item.builder().id(3).name("Молоток").description("Тяжёлый").available(true)
+            .owner(owner).build();
+
+    @Test
+    @DisplayName("Поиск по индексу после загрузки вещей")
+    void search_afterLoad_returnMatchingItemsOrderedById() {
+        load(drill, saw, hammer);
+
+        assertEquals(List.of(ItemMapper.toItemDto(drill), ItemMapper.toItemDto(saw)),
+                searchEngine.search("ПроСт", 0, 10));
+        assertEquals(List.of(ItemMapper.toItemDto(saw)), searchEngine.search("прост", 1, 1));
+        assertEquals(List.of(ItemMapper.toItemDto(hammer)), searchEngine.search("ок", 0, 10));
+        assertTrue(searchEngine.search("отвертка", 0, 10).isEmpty());
+        verify(itemRepository, never()).search(any(), any());
+    }
+
+    @Test
+    @DisplayName("Индекс обновляется при изменении и удалении вещи")
+    void onItemChanged_thenIndexUpdated() {
+        load(drill, saw);
+        ItemDto previousSaw = ItemMapper.toItemDto(saw);
+        ItemDto unavailableSaw = ItemDto.builder().id(saw.getId()).name(saw.getName())
+                .description(saw.getDescription()).available(false).build();
+        ItemDto renamedDrill = ItemDto.builder().id(drill.getId()).name("Перфоратор").description("Мощный")
+                .available(true).build();
+        ItemDto screwdriver = ItemDto.builder().id(4).name("Отвертка").description("Простая отвертка")
+                .available(true).build();
+
+        searchEngine.onItemChanged(new ItemChangedEvent(previousSaw, unavailableSaw));
+        searchEngine.onItemChanged(new ItemChangedEvent(ItemMapper.toItemDto(drill), renamedDrill));
+        searchEngine.onItemChanged(new ItemChangedEvent(null, screwdriver));
+
+        assertEquals(List.of(screwdriver), searchEngine.search("простая", 0, 10));
+        assertEquals(List.of(renamedDrill), searchEngine.search("перфо", 0, 10));
+
+        searchEngine.onItemChanged(new ItemChangedEvent(screwdriver, null));
+
+        assertTrue(searchEngine.search("простая", 0, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("До построения индекса поиск выполняется запросом к базе данных")
+    void search_beforeLoad_thenDelegatesToRepository() {
+        when(itemRepository.search(eq("дрель"), any(Pageable.class))).thenReturn(List.of(drill));
+
+        assertEquals(List.of(ItemMapper.toItemDto(drill)), searchEngine.search("дрель", 0, 10));
+    }
+
+    private void load(Item... items) {
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThanOrderByIdAsc(eq(0), any(Pageable.class)))
+                .thenReturn(List.of(items));
+        searchEngine.load();
+    }
+
+}
@@ -0,0 +1,142 @@
+package ru.practicum.server.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.event.ItemChangedEvent;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.transaction.support.TransactionSynchronization.STATUS_COMMITTED;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchCacheTest {
+
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ItemSearchCache itemSearchCache;
+
+    private final ItemDto drill = ItemDto.builder().id(1).name("Дрель").description("Простая дрель")
+            .available(true).build();
+    private final ItemDto saw = ItemDto.builder().id(2).name("Пила").description("Острая пила")
+            .available(true).build();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        itemSearchCache = new ItemSearchCache(itemSearchEngine, meterRegistry, 100, Duration.ofMinutes(10));
+        lenient().when(itemSearchEngine.matches(any(), any())).thenCallRealMethod();
+    }
+
+    @Test
+    @DisplayName("Повторный поиск без учета регистра берется из кэша")
+    void search_whenRepeated_thenEngineCalledOnce() {
+        when(itemSearchEngine.search("Дрель", 0, 10)).thenReturn(List.of(drill));
+
+        assertEquals(List.of(drill), itemSearchCache.search("Дрель", 0, 10));
+        assertEquals(List.of(drill), itemSearchCache.search("дРЕЛЬ", 0, 10));
+
+        verify(itemSearchEngine, times(1)).search(any(), any(), any());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "itemSearch").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "itemSearch").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("При изменении вещи очищаются только затронутые результаты поиска")
+    void onItemChanged_thenOnlyAffectedEntriesEvicted() {
+        when(itemSearchEngine.search(any(), any(), any())).thenReturn(List.of(drill), List.of(saw));
+        itemSearchCache.search("дрель", 0, 10);
+        itemSearchCache.search("пила", 0, 10);
+        ItemDto renamedDrill = ItemDto.builder().id(1).name("Перфоратор").description("Мощный")
+                .available(true).build();
+
+        itemSearchCache.onItemChanged(new ItemChangedEvent(drill, renamedDrill));
+        itemSearchCache.search("дрель", 0, 10);
+        itemSearchCache.search("пила", 0, 10);
+
+        verify(itemSearchEngine, times(2)).search(eq("дрель"), any(), any());
+        verify(itemSearchEngine, times(1)).search(eq("пила"), any(), any());
+    }
+
+    @Test
+    @DisplayName("Новая вещь очищает результаты, в которые она может попасть")
+    void onItemChanged_whenItemCreated_thenMatchingEntriesEvicted() {
+        when(itemSearchEngine.search(any(), any(), any())).thenReturn(List.of(drill));
+        itemSearchCache.search("простая", 0, 10);
+        ItemDto unchangedDrill = ItemDto.builder().id(1).name(drill.getName()).description(drill.getDescription())
+                .available(true).requestId(5).build();
+
+        itemSearchCache.onItemChanged(new ItemChangedEvent(drill, unchangedDrill));
+        itemSearchCache.search("простая", 0, 10);
+        itemSearchCache.onItemChanged(new ItemChangedEvent(null, ItemDto.builder().id(3).name("Отвертка")
+                .description("Простая отвертка").available(true).build()));
+        itemSearchCache.search("простая", 0, 10);
+
+        verify(itemSearchEngine, times(2)).search(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Результат поиска, начатого до изменения вещи, не попадает в кэш")
+    void search_whenItemChangedDuringSearch_thenResultNotCached() {
+        ItemDto renamedDrill = ItemDto.builder().id(1).name("Перфоратор").description("Мощный")
+                .available(true).build();
+        when(itemSearchEngine.search(any(), any(), any())).thenAnswer(invocation -> {
+            itemSearchCache.onItemChanged(new ItemChangedEvent(drill, renamedDrill));
+            return List.of(drill);
+        }).thenReturn(List.of());
+
+        assertEquals(List.of(drill), itemSearchCache.search("дрель", 0, 10));
+        assertEquals(List.of(), itemSearchCache.search("дрель", 0, 10));
+        assertEquals(List.of(), itemSearchCache.search("дрель", 0, 10));
+
+        verify(itemSearchEngine, times(2)).search(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Изменения в транзакции очищают кэш один раз после фиксации")
+    void onItemChanged_whenInTransaction_thenEvictedOnceAfterCommit() {
+        when(itemSearchEngine.search(any(), any(), any())).thenReturn(List.of(drill));
+        itemSearchCache.search("дрель", 0, 10);
+        itemSearchCache.search("дрель", 10, 10);
+        itemSearchCache.search("пила", 0, 10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (int id = 3; id < 6; id++) {
+                itemSearchCache.onItemChanged(new ItemChangedEvent(null, ItemDto.builder().id(id).name("Дрель")
+                        .description("Дрель " + id).available(true).build()));
+            }
+            itemSearchCache.search("дрель", 0, 10);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        itemSearchCache.search("дрель", 0, 10);
+        itemSearchCache.search("дрель", 10, 10);
+        itemSearchCache.search("пила", 0, 10);
+
+        verify(itemSearchEngine, times(4)).search(eq("дрель"), any(), any());
+        verify(itemSearchEngine, times(1)).search(eq("пила"), any(), any());
+        verify(itemSearchEngine, times(1)).matches(eq("дрель"), any());
+    }
+
+}
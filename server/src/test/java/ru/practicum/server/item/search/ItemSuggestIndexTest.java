@@ -0,0 +1,87 @@
+package ru.practicum.server.item.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.dto.ItemMapper;
+import ru.practicum.server.item.event.ItemChangedEvent;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.item.repository.ItemRepository;
+import ru.practicum.server.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSuggestIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private ItemSuggestIndex suggestIndex;
+
+    private final User owner = User.builder().id(1).name("owner").email("owner@user.com").build();
+    private final Item drill = Item.builder().id(1).name("Дрель").description("Простая дрель").available(true)
+            .owner(owner).build();
+    private final Item hammerDrill = Item.builder().id(2).name("Дрель ударная").description("Мощная")
+            .available(true).owner(owner).build();
+    private final Item board = Item.builder().id(3).name("Доска").description("Гладильная").available(true)
+            .owner(owner).build();
+    private final Item secondDrill = Item.builder().id(4).name("дрель").description("Ещё одна дрель")
+            .available(true).owner(owner).build();
+
+    @Test
+    @DisplayName("Подсказки по префиксу в алфавитном порядке без повторов")
+    void suggest_afterLoad_returnCompletionsInOrder() {
+        load(hammerDrill, board, drill, secondDrill);
+
+        assertEquals(List.of("Доска", "Дрель", "Дрель ударная"), suggestIndex.suggest("д", 10));
+        assertEquals(List.of("Дрель", "Дрель ударная"), suggestIndex.suggest("ДРЕ", 10));
+        assertEquals(List.of("Дрель ударная"), suggestIndex.suggest("дрель у", 10));
+        assertEquals(List.of("Доска"), suggestIndex.suggest("д", 1));
+        assertTrue(suggestIndex.suggest("дрова", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Дерево обновляется при изменении и удалении вещи")
+    void onItemChanged_thenSuggestionsUpdated() {
+        load(drill, hammerDrill, board);
+        ItemDto renamedBoard = ItemDto.builder().id(board.getId()).name("Дрожжи").available(true).build();
+        ItemDto unavailableDrill = ItemDto.builder().id(drill.getId()).name(drill.getName()).available(false)
+                .build();
+
+        suggestIndex.onItemChanged(new ItemChangedEvent(ItemMapper.toItemDto(board), renamedBoard));
+        suggestIndex.onItemChanged(new ItemChangedEvent(ItemMapper.toItemDto(drill), unavailableDrill));
+
+        assertEquals(List.of("Дрель ударная", "Дрожжи"), suggestIndex.suggest("др", 10));
+        assertTrue(suggestIndex.suggest("дос", 10).isEmpty());
+
+        suggestIndex.onItemChanged(new ItemChangedEvent(ItemMapper.toItemDto(hammerDrill), null));
+
+        assertEquals(List.of("Дрожжи"), suggestIndex.suggest("др", 10));
+        assertTrue(suggestIndex.suggest("дре", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("До построения дерева подсказки не выдаются")
+    void suggest_beforeLoad_thenEmpty() {
+        assertTrue(suggestIndex.suggest("дрель", 10).isEmpty());
+    }
+
+    private void load(Item... items) {
+        when(itemRepository.findAllByAvailableTrueAndIdGreaterThanOrderByIdAsc(eq(0), any(Pageable.class)))
+                .thenReturn(List.of(items));
+        suggestIndex.load();
+    }
+
+}
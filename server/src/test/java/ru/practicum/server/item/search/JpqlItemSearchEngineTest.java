@@ -0,0 +1,41 @@
+package ru.practicum.server.item.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.server.item.dto.ItemMapper;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.item.repository.ItemRepository;
+import ru.practicum.server.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JpqlItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private JpqlItemSearchEngine searchEngine;
+
+    private final User owner = User.builder().id(1).name("owner").email("owner@user.com").build();
+    private final Item item = Item.builder().id(2).name("Дрель").description("Простая дрель").available(true)
+            .owner(owner).build();
+
+    @Test
+    @DisplayName("Поиск вещей запрашивает нужную страницу")
+    void search_returnItemsOfRequestedPage() {
+        when(itemRepository.search("дрель", PageRequest.of(2, 5))).thenReturn(List.of(item));
+
+        assertEquals(List.of(ItemMapper.toItemDto(item)), searchEngine.search("дрель", 10, 5));
+        verify(itemRepository, times(1)).search("дрель", PageRequest.of(2, 5));
+    }
+
+}
@@ -6,8 +6,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import ru.practicum.server.booking.model.BookingStatus;
-import ru.practicum.server.booking.repository.BookingRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.server.booking.service.RentalHistoryIndex;
 import ru.practicum.server.exception.NotFoundException;
 import ru.practicum.server.exception.ValidationException;
 import ru.practicum.server.item.dto.CommentDto;
@@ -19,7 +20,7 @@ import ru.practicum.server.item.repository.ItemRepository;
 import ru.practicum.server.user.model.User;
 import ru.practicum.server.user.repository.UserRepository;
 
-import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -36,7 +37,9 @@ class CommentServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
-    private BookingRepository bookingRepository;
+    private RentalHistoryIndex rentalHistoryIndex;
+    @Mock
+    private ItemSummaryService itemSummaryService;
     @InjectMocks
     private CommentServiceImpl commentService;
 
@@ -53,9 +56,7 @@ class CommentServiceImplTest {
     void saveComment_returnComment() {
         when(userRepository.findById(anyInt())).thenReturn(Optional.of(author));
         when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
-        when(bookingRepository.existsBookingByItemAndBookerAndStatusNotAndStartBefore(
-                any(Item.class), any(User.class), any(BookingStatus.class), any(LocalDateTime.class)))
-                .thenReturn(true);
+        when(rentalHistoryIndex.hasRented(author.getId(), item.getId())).thenReturn(true);
         when(commentRepository.save(any())).thenReturn(comment);
 
         CommentDto actualCommentDto = commentService.saveComment(author.getId(), item.getId(), commentDto);
@@ -64,10 +65,9 @@ class CommentServiceImplTest {
         assertEquals(actualCommentDto, expectCommentDto);
         verify(userRepository, times(1)).findById(anyInt());
         verify(itemRepository, times(1)).findById(anyInt());
-        verify(bookingRepository, times(1))
-                .existsBookingByItemAndBookerAndStatusNotAndStartBefore(
-                        any(Item.class), any(User.class), any(BookingStatus.class), any(LocalDateTime.class));
+        verify(rentalHistoryIndex, times(1)).hasRented(author.getId(), item.getId());
         verify(commentRepository, times(1)).save(any(Comment.class));
+        verify(itemSummaryService, times(1)).addComment(expectCommentDto);
     }
 
     @Test
@@ -79,9 +79,7 @@ class CommentServiceImplTest {
 
         verify(userRepository, times(1)).findById(anyInt());
         verify(itemRepository, never()).findById(anyInt());
-        verify(bookingRepository, never())
-                .existsBookingByItemAndBookerAndStatusNotAndStartBefore(
-                        any(Item.class), any(User.class), any(BookingStatus.class), any(LocalDateTime.class));
+        verify(rentalHistoryIndex, never()).hasRented(anyInt(), anyInt());
         verify(commentRepository, never()).save(any(Comment.class));
     }
 
@@ -95,9 +93,7 @@ class CommentServiceImplTest {
 
         verify(userRepository, times(1)).findById(anyInt());
         verify(itemRepository, times(1)).findById(anyInt());
-        verify(bookingRepository, never())
-                .existsBookingByItemAndBookerAndStatusNotAndStartBefore(
-                        any(Item.class), any(User.class), any(BookingStatus.class), any(LocalDateTime.class));
+        verify(rentalHistoryIndex, never()).hasRented(anyInt(), anyInt());
         verify(commentRepository, never()).save(any(Comment.class));
     }
 
@@ -106,17 +102,37 @@ class CommentServiceImplTest {
     void saveComment_whenBookingNotExist_thanValidationExceptionThrown() {
         when(userRepository.findById(anyInt())).thenReturn(Optional.of(author));
         when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
-        when(bookingRepository.existsBookingByItemAndBookerAndStatusNotAndStartBefore(
-                any(Item.class), any(User.class), any(BookingStatus.class), any(LocalDateTime.class)))
-                .thenReturn(false);
+        when(rentalHistoryIndex.hasRented(author.getId(), item.getId())).thenReturn(false);
 
         assertThrows(ValidationException.class, () -> commentService.saveComment(author.getId(), item.getId(), commentDto));
 
         verify(userRepository, times(1)).findById(anyInt());
         verify(itemRepository, times(1)).findById(anyInt());
-        verify(bookingRepository, times(1))
-                .existsBookingByItemAndBookerAndStatusNotAndStartBefore(
-                        any(Item.class), any(User.class), any(BookingStatus.class), any(LocalDateTime.class));
+        verify(rentalHistoryIndex, times(1)).hasRented(author.getId(), item.getId());
         verify(commentRepository, never()).save(any(Comment.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Получение страницы комментариев после курсора")
+    void getComments_withCursor_returnCommentPage() {
+        comment.setId(5);
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+        when(commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(item.getId(), 10, PageRequest.of(0, 2)))
+                .thenReturn(List.of(comment));
+
+        List<CommentDto> comments = commentService.getComments(item.getId(), 10, 2);
+
+        assertEquals(List.of(CommentMapper.toCommentDto(comment)), comments);
+        verify(commentRepository, never()).findByItemIdOrderByIdDesc(anyInt(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Ошибка получения комментариев, если вещь не найдена")
+    void getComments_whenItemNotFound_thanNotFoundExceptionThrown() {
+        when(itemRepository.existsById(item.getId())).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> commentService.getComments(item.getId(), null, 10));
+        verify(commentRepository, never()).findByItemIdOrderByIdDesc(anyInt(), any(Pageable.class));
+    }
+
+}
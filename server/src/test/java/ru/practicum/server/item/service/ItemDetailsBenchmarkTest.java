@@ -0,0 +1,160 @@
+package ru.practicum.server.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.server.booking.dto.BookingDto;
+import ru.practicum.server.booking.dto.BookingMapper;
+import ru.practicum.server.booking.model.Booking;
+import ru.practicum.server.booking.model.BookingStatus;
+import ru.practicum.server.booking.repository.BookingRepository;
+import ru.practicum.server.item.dto.CommentDto;
+import ru.practicum.server.item.dto.CommentMapper;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.model.Comment;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.item.repository.CommentRepository;
+import ru.practicum.server.item.repository.ItemRepository;
+import ru.practicum.server.user.model.User;
+import ru.practicum.server.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+ * Сравнение чтения карточки вещи несколькими запросами JPA и одним запросом ItemReadRepository.
+ * Запускается вручную: mvn test -pl server -Dbenchmark=true -Dtest=ItemDetailsBenchmarkTest
+ */
+@Slf4j
+@SpringBootTest(properties = "db.name=test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ItemDetailsBenchmarkTest {
+
+    private static final int BOOKINGS = 200;
+    private static final int COMMENTS = 50;
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 5000;
+
+    private final ItemService itemService;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @Value("${shareit.item.summary.latest-comments:10}")
+    private int latestCommentsLimit;
+
+    @Test
+    @DisplayName("Чтение карточки вещи одним запросом быстрее последовательных запросов")
+    void getById_benchmark() {
+        Item item = prepareItem();
+        Integer ownerId = item.getOwner().getId();
+
+        assertEquals(readWithRepositories(ownerId, item.getId()), itemService.getById(ownerId, item.getId()));
+
+        long repositories = measure(() -> readWithRepositories(ownerId, item.getId()));
+        long singleQuery = measure(() -> itemService.getById(ownerId, item.getId()));
+        log.info("Карточка вещи: репозитории JPA {} мкс, один запрос {} мкс на чтение",
+                repositories, singleQuery);
+    }
+
+    private long measure(Supplier<ItemDto> read) {
+        for (int i = 0; i < WARMUP; i++) {
+            read.get();
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            read.get();
+        }
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started) / ITERATIONS;
+    }
+
+    /*
+     * Прежнее чтение карточки: вещь, все ее подтвержденные бронирования и все комментарии отдельными запросами,
+     * последнее и следующее бронирование и последние комментарии выбираются в памяти.
+     */
+    private ItemDto readWithRepositories(Integer userId, Integer id) {
+        return transactionTemplate.execute(status -> {
+            Item item = itemRepository.findById(id).orElseThrow();
+            LocalDateTime now = LocalDateTime.now();
+            List<BookingDto> bookings = item.getOwner().getId().equals(userId)
+                    ? entityManager.createQuery("select b from Booking as b join fetch b.booker " +
+                                    "where b.item = :item and b.status = :status order by b.start", Booking.class)
+                    .setParameter("item", item)
+                    .setParameter("status", BookingStatus.APPROVED)
+                    .getResultStream()
+                    .map(BookingMapper::toBookingDto)
+                    .collect(Collectors.toList())
+                    : List.of();
+            List<CommentDto> comments = entityManager.createQuery("select c from Comment as c join fetch c.author " +
+                            "where c.item = :item order by c.id", Comment.class)
+                    .setParameter("item", item)
+                    .getResultStream()
+                    .map(CommentMapper::toCommentDto)
+                    .collect(Collectors.toList());
+            return ItemDto.builder()
+                    .id(item.getId())
+                    .name(item.getName())
+                    .description(item.getDescription())
+                    .available(item.getAvailable())
+                    .requestId(item.getRequestId())
+                    .lastBooking(bookings.stream()
+                            .filter(booking -> booking.getStart().isBefore(now))
+                            .max(Comparator.comparing(BookingDto::getStart))
+                            .orElse(null))
+                    .nextBooking(bookings.stream()
+                            .filter(booking -> booking.getStart().isAfter(now))
+                            .findFirst()
+                            .orElse(null))
+                    .commentCount(comments.size())
+                    .comments(comments.subList(Math.max(0, comments.size() - latestCommentsLimit), comments.size()))
+                    .build();
+        });
+    }
+
+    private Item prepareItem() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@user.com").build());
+        Item item = itemRepository.save(Item.builder().name("Дрель").description("Простая дрель").available(true)
+                .owner(owner).build());
+        LocalDateTime now = LocalDateTime.now();
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < COMMENTS; i++) {
+            bookers.add(userRepository.save(User.builder().name("booker" + i).email("booker" + i + "@user.com")
+                    .build()));
+        }
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = now.plusDays(i - BOOKINGS / 2);
+            bookings.add(Booking.builder().start(start).end(start.plusHours(12)).item(item)
+                    .booker(bookers.get(i % COMMENTS)).status(BookingStatus.APPROVED).build());
+        }
+        bookingRepository.saveAll(bookings);
+        List<Comment> comments = new ArrayList<>();
+        for (User booker : bookers) {
+            comments.add(Comment.builder().text("Комментарий " + booker.getName()).item(item).author(booker)
+                    .created(now).build());
+        }
+        commentRepository.saveAll(comments);
+        return item;
+    }
+
+}
@@ -6,33 +6,42 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingMapper;
 import ru.practicum.server.booking.model.Booking;
-import ru.practicum.server.booking.model.BookingStatus;
 import ru.practicum.server.booking.repository.BookingRepository;
 import ru.practicum.server.exception.NotFoundException;
+import ru.practicum.server.exception.ValidationException;
 import ru.practicum.server.item.dto.CommentDto;
 import ru.practicum.server.item.dto.CommentMapper;
 import ru.practicum.server.item.dto.ItemDto;
 import ru.practicum.server.item.dto.ItemMapper;
+import ru.practicum.server.item.dto.TimeSlotDto;
+import ru.practicum.server.item.event.ItemChangedEvent;
 import ru.practicum.server.item.model.Comment;
 import ru.practicum.server.item.model.Item;
-import ru.practicum.server.item.repository.CommentRepository;
+import ru.practicum.server.item.repository.ItemReadRepository;
 import ru.practicum.server.item.repository.ItemRepository;
+import ru.practicum.server.item.search.ItemSearchCache;
+import ru.practicum.server.item.search.ItemSuggestIndex;
 import ru.practicum.server.request.model.ItemRequest;
 import ru.practicum.server.request.repository.ItemRequestRepository;
 import ru.practicum.server.user.model.User;
 import ru.practicum.server.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,13 +50,23 @@ class ItemServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
     @Mock
+    private ItemReadRepository itemReadRepository;
+    @Mock
     private UserRepository userRepository;
     @Mock
     private BookingRepository bookingRepository;
     @Mock
-    private CommentRepository commentRepository;
+    private ItemSummaryService itemSummaryService;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemSearchCache itemSearchCache;
+    @Mock
+    private ItemSuggestIndex itemSuggestIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private EntityManager entityManager;
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -82,6 +101,7 @@ class ItemServiceImplTest {
         verify(userRepository, times(1)).findById(anyInt());
         verify(itemRequestRepository, times(1)).findById(anyInt());
         verify(itemRepository, times(1)).save(any());
+        verify(itemSummaryService, times(1)).createSummary(item.getId());
     }
 
     @Test
@@ -108,26 +128,52 @@ class ItemServiceImplTest {
         verify(itemRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Пакетное добавление вещей")
+    void saveItems_returnIds() {
+        ItemDto second = ItemDto.builder().name("second").description("second").available(true).requestId(1).build();
+        itemRequest.setId(1);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(itemRequestRepository.findAllById(Set.of(1))).thenReturn(List.of(itemRequest));
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            items.get(0).setId(10);
+            items.get(1).setId(11);
+            return items;
+        });
+
+        List<Integer> ids = itemService.saveItems(user.getId(), List.of(itemDto, second));
+
+        assertEquals(List.of(10, 11), ids);
+        verify(itemSummaryService, times(1)).createSummaries(List.of(10, 11));
+        verify(eventPublisher, times(2)).publishEvent(any(ItemChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Ошибка пакетного добавления вещей, если запрос не найден")
+    void saveItems_whenRequestNotFound_thenNotFoundExceptionThrown() {
+        itemDto.setRequestId(5);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(itemRequestRepository.findAllById(Set.of(5))).thenReturn(List.of());
+
+        assertThrows(NotFoundException.class, () -> itemService.saveItems(user.getId(), List.of(itemDto)));
+        verify(itemRepository, never()).saveAll(anyList());
+    }
+
     @Test
     @DisplayName("Получение списка вещей пользователя")
     void getAllByUserId_returnItemList() {
+        List<ItemDto> expectItemDto = List.of(ItemMapper.toItemDto(item, null, BookingMapper.toBookingDto(booking),
+                List.of(CommentMapper.toCommentDto(comment))));
         when(userRepository.findById(anyInt())).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwnerIdOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(
-                List.of(item));
-        when(commentRepository.findByItemIn(anyList())).thenReturn(List.of(comment));
-        when(bookingRepository.findAllByItemInAndStatusOrderByStartAsc(anyList(), any(BookingStatus.class)))
-                .thenReturn(List.of(booking));
+        when(itemSummaryService.getByOwnerId(user.getId(), 0, 10)).thenReturn(expectItemDto);
 
         List<ItemDto> actualItemDto = itemService.getAllByUserId(user.getId(), 0, 10);
-        List<ItemDto> expectItemDto = List.of(ItemMapper.toItemDto(item, null, BookingMapper.toBookingDto(booking),
-                List.of(CommentMapper.toCommentDto(comment))));
 
         assertEquals(actualItemDto, expectItemDto);
         verify(userRepository, times(1)).findById(anyInt());
-        verify(itemRepository, times(1)).findAllByOwnerIdOrderByIdAsc(anyInt(), any(Pageable.class));
-        verify(commentRepository, times(1)).findByItemIn(anyList());
-        verify(bookingRepository, times(1))
-                .findAllByItemInAndStatusOrderByStartAsc(anyList(), any(BookingStatus.class));
+        verify(itemSummaryService, times(1)).refreshStaleBookings(List.of(item.getId()));
+        verify(itemSummaryService, times(1)).refreshStaleBookings(List.of(item.getId()));
     }
 
     @Test
@@ -137,61 +183,30 @@ class ItemServiceImplTest {
 
         assertThrows(NotFoundException.class, () -> itemService.getAllByUserId(user.getId(), 0, 10));
         verify(userRepository, times(1)).findById(anyInt());
-        verify(itemRepository, never()).findAllByOwnerIdOrderByIdAsc(anyInt(), any(Pageable.class));
-        verify(commentRepository, never()).findByItemIn(anyList());
-        verify(bookingRepository, never())
-                .findAllByItemInAndStatusOrderByStartAsc(anyList(), any(BookingStatus.class));
+        verify(itemSummaryService, never()).getByOwnerId(anyInt(), anyInt(), anyInt());
     }
 
     @Test
     @DisplayName("Получение вещи по id")
     void getById_returnItem() {
-        when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
-        when(bookingRepository.findAllByItemInAndStatusOrderByStartAsc(anyList(), any(BookingStatus.class)))
-                .thenReturn(List.of(booking));
-        when(commentRepository.findByItemOrderByIdAsc(any(Item.class))).thenReturn(List.of(comment));
-
-        ItemDto actualItemDto = itemService.getById(user.getId(), item.getId());
         ItemDto expectItemDto = ItemMapper.toItemDto(item, null, BookingMapper.toBookingDto(booking),
                 List.of(CommentMapper.toCommentDto(comment)));
+        when(itemReadRepository.findItemDetails(eq(item.getId()), eq(user.getId()), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(expectItemDto));
 
-        assertEquals(actualItemDto, expectItemDto);
-        verify(itemRepository, times(1)).findById(anyInt());
-        verify(commentRepository, times(1)).findByItemOrderByIdAsc(any(Item.class));
-        verify(bookingRepository, times(1))
-                .findAllByItemInAndStatusOrderByStartAsc(anyList(), any(BookingStatus.class));
-    }
-
-    @Test
-    @DisplayName("Получение вещи по id, не имеющей комментариев")
-    void getById_returnItemWithoutComments() {
-        when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
-        when(bookingRepository.findAllByItemInAndStatusOrderByStartAsc(anyList(), any(BookingStatus.class)))
-                .thenReturn(List.of(booking));
-        when(commentRepository.findByItemOrderByIdAsc(any(Item.class))).thenReturn(List.of(comment));
-
-        ItemDto actualItemDto = itemService.getById(6, item.getId());
-        ItemDto expectItemDto = ItemMapper.toItemDto(item,
-                List.of(CommentMapper.toCommentDto(comment)));
+        ItemDto actualItemDto = itemService.getById(user.getId(), item.getId());
 
         assertEquals(actualItemDto, expectItemDto);
-        verify(itemRepository, times(1)).findById(anyInt());
-        verify(commentRepository, times(1)).findByItemOrderByIdAsc(any(Item.class));
-        verify(bookingRepository, times(1))
-                .findAllByItemInAndStatusOrderByStartAsc(anyList(), any(BookingStatus.class));
+        verify(itemRepository, never()).findById(anyInt());
     }
 
-
     @Test
     @DisplayName("Ошибка получения вещи по id, если вещь не найдена")
     void getById_whenItemNotFound_thanNotFoundExceptionThrown() {
-        when(itemRepository.findById(anyInt())).thenReturn(Optional.empty());
+        when(itemReadRepository.findItemDetails(anyInt(), anyInt(), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemService.getById(user.getId(), item.getId()));
-        verify(itemRepository, times(1)).findById(anyInt());
-        verify(commentRepository, never()).findByItemOrderByIdAsc(any(Item.class));
-        verify(bookingRepository, never())
-                .findAllByItemInAndStatusOrderByStartAsc(anyList(), any(BookingStatus.class));
     }
 
     @Test
@@ -202,6 +217,7 @@ class ItemServiceImplTest {
         itemDto.setName("itemUpdate");
         itemDto.setDescription("itemUpdateDescription");
         itemDto.setAvailable(false);
+        ItemDto previousItemDto = ItemMapper.toItemDto(item);
 
         ItemDto actualItemDto = itemService.updateItem(user.getId(), item.getId(), itemDto);
         ItemDto expectItemDto = ItemMapper.toItemDto(item);
@@ -209,6 +225,7 @@ class ItemServiceImplTest {
         assertEquals(actualItemDto, expectItemDto);
         verify(itemRepository, times(1)).findById(anyInt());
         verify(itemRepository, times(1)).save(any(Item.class));
+        verify(eventPublisher, times(1)).publishEvent(new ItemChangedEvent(previousItemDto, expectItemDto));
     }
 
     @Test
@@ -237,14 +254,17 @@ class ItemServiceImplTest {
     @Test
     @DisplayName("Удаление вещи")
     void deleteById() {
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+
         itemService.deleteById(item.getId());
         verify(itemRepository, times(1)).deleteById(anyInt());
+        verify(eventPublisher, times(1)).publishEvent(new ItemChangedEvent(ItemMapper.toItemDto(item), null));
     }
 
     @Test
     @DisplayName("Поиск вещи по названию или описанию")
     void searchItem_ReturnItemList() {
-        when(itemRepository.search(anyString(), any(Pageable.class))).thenReturn(List.of(item));
+        when(itemSearchCache.search("item", 0, 10)).thenReturn(List.of(ItemMapper.toItemDto(item)));
 
         List<ItemDto> actualItemDtoList = itemService.searchItem(user.getId(), "item", 0, 10);
         List<ItemDto> expectItemDtoList = List.of(ItemMapper.toItemDto(item));
@@ -259,6 +279,65 @@ class ItemServiceImplTest {
         List<ItemDto> actualItemDtoList = itemService.searchItem(user.getId(), "", 0, 10);
 
         assertEquals(actualItemDtoList.size(), 0);
-        verify(itemRepository, never()).search(anyString(), any(Pageable.class));
+        verify(itemSearchCache, never()).search(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Подсказки по названию вещи")
+    void suggestNames_returnNames() {
+        when(itemSuggestIndex.suggest("it", 10)).thenReturn(List.of(item.getName()));
+
+        assertEquals(List.of(item.getName()), itemService.suggestNames("it", 10));
+        assertEquals(List.of(), itemService.suggestNames(" ", 10));
+        verify(itemSuggestIndex, times(1)).suggest(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Выгрузка вещей пользователя с отсоединением сущностей")
+    void exportByUserId_thenItemsWrittenAndDetached() {
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(user));
+        when(itemRepository.streamAllByOwnerIdOrderByIdAsc(user.getId())).thenReturn(Stream.of(item));
+        List<ItemDto> exported = new ArrayList<>();
+
+        itemService.exportByUserId(user.getId(), exported::add);
+
+        assertEquals(List.of(ItemMapper.toItemDto(item)), exported);
+        verify(entityManager).detach(item);
+    }
+
+    @Test
+    @DisplayName("Ошибка выгрузки вещей несуществующего пользователя")
+    void exportByUserId_whenUserNotFound_thenNotFoundExceptionThrown() {
+        when(userRepository.findById(anyInt())).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> itemService.exportByUserId(user.getId(), itemDto -> {
+        }));
+        verify(itemRepository, never()).streamAllByOwnerIdOrderByIdAsc(anyInt());
+    }
+
+    @Test
+    @DisplayName("Получение свободных интервалов вещи")
+    void getAvailability_returnFreeSlots() {
+        LocalDateTime from = now.plusDays(1);
+        LocalDateTime to = from.plusDays(10);
+        Booking startsBeforeWindow = Booking.builder().start(from.minusDays(1)).end(from.plusDays(1)).build();
+        Booking first = Booking.builder().start(from.plusDays(3)).end(from.plusDays(5)).build();
+        Booking nested = Booking.builder().start(from.plusDays(4)).end(from.plusDays(4).plusHours(1)).build();
+        Booking adjacent = Booking.builder().start(from.plusDays(5)).end(from.plusDays(6)).build();
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+        when(bookingRepository.streamByItemIdWithin(eq(item.getId()), any(), eq(from), eq(to)))
+                .thenReturn(Stream.of(startsBeforeWindow, first, nested, adjacent));
+
+        List<TimeSlotDto> slots = itemService.getAvailability(item.getId(), from, to);
+
+        assertEquals(List.of(new TimeSlotDto(from.plusDays(1), from.plusDays(3)),
+                new TimeSlotDto(from.plusDays(6), to)), slots);
+    }
+
+    @Test
+    @DisplayName("Ошибка при получении свободных интервалов, если период задан некорректно")
+    void getAvailability_whenPeriodIsEmpty_thanValidationExceptionThrown() {
+        assertThrows(ValidationException.class, () -> itemService.getAvailability(item.getId(), now, now));
+        verify(bookingRepository, never()).streamByItemIdWithin(any(), any(), any(), any());
     }
-}
\ No newline at end of file
+}
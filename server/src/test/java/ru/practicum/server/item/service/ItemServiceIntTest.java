@@ -6,15 +6,29 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.server.booking.dto.BookingDto;
+import ru.practicum.server.booking.model.Booking;
+import ru.practicum.server.booking.model.BookingStatus;
+import ru.practicum.server.booking.repository.BookingRepository;
+import ru.practicum.server.booking.service.BookingService;
+import ru.practicum.server.item.dto.CommentDto;
 import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.model.ItemSummary;
+import ru.practicum.server.item.repository.ItemRepository;
+import ru.practicum.server.item.repository.ItemSummaryRepository;
 import ru.practicum.server.user.dto.UserDto;
+import ru.practicum.server.user.repository.UserRepository;
 import ru.practicum.server.user.service.UserService;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @Transactional
 @SpringBootTest(properties = "db.name=test")
@@ -24,6 +38,12 @@ class ItemServiceIntTest {
 
     private final ItemService itemService;
     private final UserService userService;
+    private final BookingService bookingService;
+    private final CommentService commentService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final ItemSummaryRepository itemSummaryRepository;
+    private final UserRepository userRepository;
 
     private final UserDto itemOwnerDto = UserDto.builder().name("itemOwner").email("itemOwner@user.com").build();
     private final ItemDto itemDto = ItemDto.builder().name("itemName").description("itemDescription").available(true).build();
@@ -42,6 +62,32 @@ class ItemServiceIntTest {
         assertEquals(actualItemDto.getDescription(), itemDto.getDescription());
     }
 
+    @Test
+    @DisplayName("Пакетное добавление вещей со сводками")
+    void saveItems() {
+        UserDto savedItemOwnerDto = userService.saveUser(itemOwnerDto);
+
+        List<Integer> ids = itemService.saveItems(savedItemOwnerDto.getId(), List.of(itemDto, itemDto2));
+        List<ItemDto> allByUserId = itemService.getAllByUserId(savedItemOwnerDto.getId(), 0, 10);
+
+        assertEquals(2, ids.size());
+        assertEquals(ids.get(0), allByUserId.get(0).getId());
+        assertEquals(itemDto2.getName(), allByUserId.get(1).getName());
+        assertEquals(0, allByUserId.get(1).getCommentCount());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Пакетно добавленные вещи сбрасывают закэшированный результат поиска")
+    void saveItems_thenCachedSearchEvicted() {
+        UserDto savedItemOwnerDto = userService.saveUser(itemOwnerDto);
+        assertEquals(List.of(), itemService.searchItem(savedItemOwnerDto.getId(), "itemName", 0, 10));
+
+        itemService.saveItems(savedItemOwnerDto.getId(), List.of(itemDto, itemDto2));
+
+        assertEquals(2, itemService.searchItem(savedItemOwnerDto.getId(), "itemName", 0, 10).size());
+    }
+
     @Test
     @DisplayName("Получение списка вещей пользователя")
     void getAllByUserId() {
@@ -57,4 +103,63 @@ class ItemServiceIntTest {
         assertEquals(allByUserId.get(1).getName(), itemDto2.getName());
         assertEquals(allByUserId.get(1).getDescription(), itemDto2.getDescription());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Список вещей владельца читается из сводки, обновленной подтверждением и комментарием")
+    void getAllByUserId_whenBookingApprovedAndCommentAdded_thenSummaryUpdated() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        UserDto savedItemOwnerDto = userService.saveUser(itemOwnerDto);
+        UserDto savedBookerDto = userService.saveUser(UserDto.builder().name("booker").email("booker@user.com")
+                .build());
+        ItemDto savedItemDto = itemService.saveItem(savedItemOwnerDto.getId(), itemDto);
+        Booking past = bookingRepository.save(Booking.builder().start(now.minusDays(2)).end(now.minusDays(1))
+                .item(itemRepository.findById(savedItemDto.getId()).orElseThrow())
+                .booker(userRepository.findById(savedBookerDto.getId()).orElseThrow())
+                .status(BookingStatus.WAITING).build());
+        Integer futureId = bookingService.saveBooking(savedBookerDto.getId(), BookingDto.builder()
+                .start(now.plusDays(1)).end(now.plusDays(2)).itemId(savedItemDto.getId()).build()).getId();
+
+        bookingService.approveBooking(savedItemOwnerDto.getId(), past.getId(), true);
+        bookingService.approveBooking(savedItemOwnerDto.getId(), futureId, true);
+        commentService.saveComment(savedBookerDto.getId(), savedItemDto.getId(),
+                CommentDto.builder().text("Отличная вещь").build());
+        List<ItemDto> allByUserId = itemService.getAllByUserId(savedItemOwnerDto.getId(), 0, 10);
+
+        assertEquals(1, allByUserId.size());
+        assertEquals(past.getId(), allByUserId.get(0).getLastBooking().getId());
+        assertEquals(futureId, allByUserId.get(0).getNextBooking().getId());
+        assertEquals(1, allByUserId.get(0).getCommentCount());
+        assertEquals("Отличная вещь", allByUserId.get(0).getComments().get(0).getText());
+        assertEquals("booker", allByUserId.get(0).getComments().get(0).getAuthorName());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Сводка с начавшимся следующим бронированием сохраняется после чтения списка вещей")
+    void getAllByUserId_whenNextBookingStarted_thenSummaryPersisted() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        UserDto savedItemOwnerDto = userService.saveUser(itemOwnerDto);
+        UserDto savedBookerDto = userService.saveUser(UserDto.builder().name("booker").email("booker@user.com")
+                .build());
+        ItemDto savedItemDto = itemService.saveItem(savedItemOwnerDto.getId(), itemDto);
+        Booking started = bookingRepository.save(Booking.builder().start(now.minusHours(1)).end(now.plusHours(1))
+                .item(itemRepository.findById(savedItemDto.getId()).orElseThrow())
+                .booker(userRepository.findById(savedBookerDto.getId()).orElseThrow())
+                .status(BookingStatus.APPROVED).build());
+        // сводка записана, когда бронирование еще было следующим
+        ItemSummary summary = itemSummaryRepository.findById(savedItemDto.getId()).orElseThrow();
+        summary.setNextBookingId(started.getId());
+        summary.setNextBookingStart(started.getStart());
+        summary.setNextBookingEnd(started.getEnd());
+        summary.setNextBookerId(savedBookerDto.getId());
+        itemSummaryRepository.save(summary);
+
+        List<ItemDto> allByUserId = itemService.getAllByUserId(savedItemOwnerDto.getId(), 0, 10);
+
+        assertEquals(started.getId(), allByUserId.get(0).getLastBooking().getId());
+        ItemSummary persisted = itemSummaryRepository.findById(savedItemDto.getId()).orElseThrow();
+        assertEquals(started.getId(), persisted.getLastBookingId());
+        assertNull(persisted.getNextBookingId());
+    }
+
+}
@@ -0,0 +1,180 @@
+package ru.practicum.server.item.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.server.booking.dto.BookingDto;
+import ru.practicum.server.booking.dto.BookingMapper;
+import ru.practicum.server.booking.model.Booking;
+import ru.practicum.server.booking.model.BookingStatus;
+import ru.practicum.server.booking.repository.BookingRepository;
+import ru.practicum.server.item.dto.CommentDto;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.model.Item;
+import ru.practicum.server.item.model.ItemSummary;
+import ru.practicum.server.item.repository.ItemComments;
+import ru.practicum.server.item.repository.ItemReadRepository;
+import ru.practicum.server.item.repository.ItemSummaryRepository;
+import ru.practicum.server.item.repository.ItemWithSummary;
+import ru.practicum.server.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSummaryServiceImplTest {
+
+    @Mock
+    private ItemSummaryRepository itemSummaryRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ItemReadRepository itemReadRepository;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    @InjectMocks
+    private ItemSummaryServiceImpl itemSummaryService;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final User owner = User.builder().id(1).name("owner").email("owner@user.com").build();
+    private final User booker = User.builder().id(2).name("booker").email("booker@user.com").build();
+    private final Item item = Item.builder().id(3).name("Дрель").description("Простая дрель").available(true)
+            .owner(owner).build();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(itemSummaryService, "latestCommentsLimit", 2);
+    }
+
+    @Test
+    @DisplayName("Сводка хранит число комментариев и только последние комментарии")
+    void addComment_thenCountIncrementedAndLatestKept() {
+        ItemSummary summary = ItemSummary.builder().itemId(item.getId()).build();
+        when(itemSummaryRepository.findLockedByItemId(item.getId())).thenReturn(Optional.of(summary));
+
+        for (int i = 1; i <= 3; i++) {
+            itemSummaryService.addComment(CommentDto.builder().id(i).text("Комментарий " + i).itemId(item.getId())
+                    .authorName(booker.getName()).created(now).build());
+        }
+
+        assertEquals(3, summary.getCommentCount());
+        when(itemSummaryRepository.findAllByOwnerId(eq(owner.getId()), any(Pageable.class)))
+                .thenReturn(List.of(row(summary)));
+        ItemDto itemDto = itemSummaryService.getByOwnerId(owner.getId(), 0, 10).get(0);
+        assertEquals(3, itemDto.getCommentCount());
+        assertEquals(List.of(2, 3), List.of(itemDto.getComments().get(0).getId(),
+                itemDto.getComments().get(1).getId()));
+        verify(bookingRepository, never()).findLastAndNextApprovedByItemIdIn(any(), any());
+    }
+
+    @Test
+    @DisplayName("Бронирования сводки с наступившим следующим бронированием пересчитываются при чтении без записи")
+    void getByOwnerId_whenNextBookingStarted_thenBookingsRefreshed() {
+        ItemSummary summary = ItemSummary.builder().itemId(item.getId()).nextBookingId(10)
+                .nextBookingStart(now.minusHours(1)).nextBookingEnd(now.plusHours(1)).nextBookerId(booker.getId())
+                .build();
+        Booking started = Booking.builder().id(10).start(now.minusHours(1)).end(now.plusHours(1)).item(item)
+                .booker(booker).status(BookingStatus.APPROVED).build();
+        when(itemSummaryRepository.findAllByOwnerId(eq(owner.getId()), any(Pageable.class)))
+                .thenReturn(List.of(row(summary)));
+        when(bookingRepository.findLastAndNextApprovedByItemIdIn(eq(List.of(item.getId())), any()))
+                .thenReturn(List.of(started));
+
+        ItemDto itemDto = itemSummaryService.getByOwnerId(owner.getId(), 0, 10).get(0);
+
+        BookingDto expectLast = BookingMapper.toBookingDto(started);
+        assertEquals(expectLast, itemDto.getLastBooking());
+        assertNull(itemDto.getNextBooking());
+        assertNull(summary.getLastBookingId());
+        assertEquals(10, summary.getNextBookingId());
+        verify(itemSummaryRepository, never()).findLockedByItemId(anyInt());
+    }
+
+    @Test
+    @DisplayName("Для вещи без сводки читаются только последние комментарии и их число")
+    void getByOwnerId_whenSummaryMissing_thenLatestCommentsQueried() {
+        CommentDto latest = CommentDto.builder().id(7).text("Отличная дрель").itemId(item.getId())
+                .authorName(booker.getName()).created(now).build();
+        when(itemSummaryRepository.findAllByOwnerId(eq(owner.getId()), any(Pageable.class)))
+                .thenReturn(List.of(row(null)));
+        when(itemReadRepository.findLatestComments(List.of(item.getId()), 2))
+                .thenReturn(Map.of(item.getId(), new ItemComments(5, List.of(latest))));
+
+        ItemDto itemDto = itemSummaryService.getByOwnerId(owner.getId(), 0, 10).get(0);
+
+        assertEquals(5, itemDto.getCommentCount());
+        assertEquals(List.of(latest), itemDto.getComments());
+        verify(itemSummaryRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Подтверждение бронирования обновляет последнее и следующее бронирование")
+    void refreshBookings_thenSummaryUpdated() {
+        Booking next = Booking.builder().id(11).start(now.plusDays(1)).end(now.plusDays(2)).item(item)
+                .booker(booker).status(BookingStatus.APPROVED).build();
+        ItemSummary summary = ItemSummary.builder().itemId(item.getId()).commentCount(1).build();
+        when(bookingRepository.findLastAndNextApprovedByItemIdIn(eq(List.of(item.getId())), any()))
+                .thenReturn(List.of(next));
+        when(itemSummaryRepository.findLockedByItemId(item.getId())).thenReturn(Optional.of(summary));
+
+        itemSummaryService.refreshBookings(List.of(item.getId()));
+
+        assertNull(summary.getLastBookingId());
+        assertEquals(next.getId(), summary.getNextBookingId());
+        assertEquals(next.getStart(), summary.getNextBookingStart());
+        assertEquals(1, summary.getCommentCount());
+    }
+
+    @Test
+    @DisplayName("Устаревшие сводки сохраняются под блокировкой, актуальные не блокируются")
+    void refreshStaleBookings_thenOnlyStaleSummariesLocked() {
+        Booking started = Booking.builder().id(10).start(now.minusHours(1)).end(now.plusHours(1)).item(item)
+                .booker(booker).status(BookingStatus.APPROVED).build();
+        ItemSummary summary = ItemSummary.builder().itemId(item.getId()).nextBookingId(10)
+                .nextBookingStart(started.getStart()).nextBookingEnd(started.getEnd()).nextBookerId(booker.getId())
+                .build();
+        when(itemSummaryRepository.findStaleItemIds(eq(List.of(item.getId(), 4)), any()))
+                .thenReturn(List.of(item.getId()));
+        when(bookingRepository.findLastAndNextApprovedByItemIdIn(eq(List.of(item.getId())), any()))
+                .thenReturn(List.of(started));
+        when(itemSummaryRepository.findLockedByItemId(item.getId())).thenReturn(Optional.of(summary));
+
+        itemSummaryService.refreshStaleBookings(List.of(item.getId(), 4));
+
+        assertEquals(started.getId(), summary.getLastBookingId());
+        assertNull(summary.getNextBookingId());
+        verify(itemSummaryRepository, never()).findLockedByItemId(4);
+    }
+
+    private ItemWithSummary row(ItemSummary summary) {
+        return new ItemWithSummary() {
+            @Override
+            public Item getItem() {
+                return item;
+            }
+
+            @Override
+            public ItemSummary getSummary() {
+                return summary;
+            }
+        };
+    }
+
+}
@@ -10,10 +10,13 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.server.pagination.PageCursor;
 import ru.practicum.server.request.dto.ItemRequestDto;
 import ru.practicum.server.request.service.ItemRequestService;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -22,6 +25,8 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
@@ -86,6 +91,27 @@ class ItemRequestControllerTest {
         verify(itemRequestService, times(1)).getAllRequests(anyInt(), anyInt(), anyInt());
     }
 
+    @SneakyThrows
+    @Test
+    @DisplayName("Получение страницы всех запросов по курсору с курсором следующей страницы")
+    void getAllRequests_withCursor_thenNextCursorReturned() {
+        itemRequestDto.setId(3);
+        itemRequestDto.setCreated(LocalDateTime.of(2024, 1, 1, 12, 0));
+        String after = new PageCursor(LocalDateTime.of(2024, 1, 2, 12, 0), 7).encode();
+        when(itemRequestService.getAllRequestsAfter(1, after, 1)).thenReturn(List.of(itemRequestDto));
+
+        mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("size", "1")
+                        .param("after", after))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PageCursor.NEXT_CURSOR_HEADER,
+                        new PageCursor(itemRequestDto.getCreated(), itemRequestDto.getId()).encode()))
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(itemRequestDto))));
+
+        verify(itemRequestService, never()).getAllRequests(anyInt(), anyInt(), anyInt());
+    }
+
     @SneakyThrows
     @Test
     @DisplayName("Получение запроса по id")
@@ -99,4 +125,19 @@ class ItemRequestControllerTest {
 
         verify(itemRequestService, times(1)).getById(anyInt(), anyInt());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Подписка на поток новых запросов")
+    void streamRequests() {
+        when(itemRequestService.subscribe(anyInt())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/requests/stream")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(itemRequestService, times(1)).subscribe(1);
+    }
+}
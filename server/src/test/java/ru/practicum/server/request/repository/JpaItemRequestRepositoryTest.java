@@ -6,11 +6,13 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.server.request.model.ItemRequest;
 import ru.practicum.server.user.model.User;
 import ru.practicum.server.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -18,6 +20,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 @DataJpaTest
 class JpaItemRequestRepositoryTest {
 
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
     @Autowired
     private ItemRequestRepository itemRequestRepository;
     @Autowired
@@ -25,9 +29,9 @@ class JpaItemRequestRepositoryTest {
 
     private final User requestor = User.builder().name("requestor").email("requestor@user.com").build();
     private final ItemRequest itemRequest = ItemRequest.builder().description("Нужна отвертка").requestor(requestor)
-            .created(LocalDateTime.now()).build();
+            .created(NOW).build();
     private final ItemRequest itemRequest1 = ItemRequest.builder().description("Нужна дрель").requestor(requestor)
-            .created(LocalDateTime.now().plusMinutes(10)).build();
+            .created(NOW.plusMinutes(10)).build();
 
     @BeforeEach
     void save() {
@@ -56,4 +60,25 @@ class JpaItemRequestRepositoryTest {
         assertEquals(itemRequests.get(1).getCreated(), itemRequest.getCreated());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Запросы других пользователей по убыванию даты создания с курсором")
+    void findAllByRequestorIdNot_withCursor() {
+        User other = User.builder().name("other").email("other@user.com").build();
+        userRepository.save(other);
+        ItemRequest otherRequest = ItemRequest.builder().description("Нужна пила").requestor(other)
+                .created(NOW.plusMinutes(5)).build();
+        itemRequestRepository.save(otherRequest);
+
+        List<ItemRequest> forOther = itemRequestRepository.findAllByRequestor_IdNotOrderByCreatedDescIdDesc(
+                other.getId(), Pageable.ofSize(1));
+        List<ItemRequest> nextForOther = itemRequestRepository.findAllByRequestorIdNotAfter(other.getId(),
+                forOther.get(0).getCreated(), forOther.get(0).getId(), Pageable.ofSize(10));
+        List<ItemRequest> forRequestor = itemRequestRepository.findAllByRequestor_IdNotOrderByCreatedDescIdDesc(
+                requestor.getId(), Pageable.ofSize(10));
+
+        assertEquals(List.of(itemRequest1), forOther);
+        assertEquals(List.of(itemRequest), nextForOther);
+        assertEquals(List.of(otherRequest), forRequestor);
+    }
+}
@@ -6,17 +6,24 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.server.exception.NotFoundException;
+import ru.practicum.server.exception.ValidationException;
 import ru.practicum.server.item.repository.ItemRepository;
+import ru.practicum.server.pagination.PageCursor;
 import ru.practicum.server.request.dto.ItemRequestDto;
 import ru.practicum.server.request.dto.ItemRequestMapper;
+import ru.practicum.server.request.event.ItemRequestCreatedEvent;
 import ru.practicum.server.request.model.ItemRequest;
 import ru.practicum.server.request.repository.ItemRequestRepository;
+import ru.practicum.server.request.stream.ItemRequestStream;
 import ru.practicum.server.user.model.User;
 import ru.practicum.server.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +40,10 @@ class ItemRequestServiceImplTest {
     private UserRepository userRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private ItemRequestStream itemRequestStream;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     ItemRequestServiceImpl itemRequestService;
 
@@ -54,6 +65,7 @@ class ItemRequestServiceImplTest {
         assertEquals(actualItemRequestDto, expectItemRequestDto);
         verify(userRepository, times(1)).findById(anyInt());
         verify(itemRequestRepository, times(1)).save(any(ItemRequest.class));
+        verify(eventPublisher, times(1)).publishEvent(new ItemRequestCreatedEvent(expectItemRequestDto));
     }
 
     @Test
@@ -64,6 +76,7 @@ class ItemRequestServiceImplTest {
         assertThrows(NotFoundException.class, () -> itemRequestService.saveItemRequest(requestor.getId(), itemRequestDto));
         verify(userRepository, times(1)).findById(anyInt());
         verify(itemRequestRepository, never()).save(any(ItemRequest.class));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -95,14 +108,37 @@ class ItemRequestServiceImplTest {
     @DisplayName("Получение списка всех запросов")
     void getAllRequests_ReturnItemRequests() {
         when(userRepository.findById(anyInt())).thenReturn(Optional.of(owner));
-        when(itemRequestRepository.findAll(any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(itemRequest)));
+        when(itemRequestRepository.findAllByRequestor_IdNotOrderByCreatedDescIdDesc(owner.getId(),
+                PageRequest.of(0, 10))).thenReturn(List.of(itemRequest));
 
         List<ItemRequestDto> actualRequestDtos = itemRequestService.getAllRequests(owner.getId(), 0, 10);
         List<ItemRequestDto> expectRequestDtos = List.of(ItemRequestMapper.toItemRequestDto(itemRequest));
 
         assertEquals(actualRequestDtos, expectRequestDtos);
         verify(userRepository, times(1)).findById(anyInt());
-        verify(itemRequestRepository, times(1)).findAll(any(PageRequest.class));
+        verify(itemRequestRepository, never()).findAll(any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("Получение страницы всех запросов после курсора")
+    void getAllRequestsAfter_ReturnItemRequests() {
+        LocalDateTime created = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        String after = new PageCursor(created, 5).encode();
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(owner));
+        when(itemRequestRepository.findAllByRequestorIdNotAfter(owner.getId(), created, 5, PageRequest.of(0, 10)))
+                .thenReturn(List.of(itemRequest));
+
+        List<ItemRequestDto> actualRequestDtos = itemRequestService.getAllRequestsAfter(owner.getId(), after, 10);
+
+        assertEquals(List.of(ItemRequestMapper.toItemRequestDto(itemRequest)), actualRequestDtos);
+    }
+
+    @Test
+    @DisplayName("Ошибка получения списка всех запросов, если курсор некорректный")
+    void getAllRequestsAfter_whenCursorInvalid_thanValidationExceptionThrown() {
+        assertThrows(ValidationException.class, () -> itemRequestService.getAllRequestsAfter(owner.getId(),
+                "не курсор", 10));
+        verify(userRepository, never()).findById(anyInt());
     }
 
     @Test
@@ -112,7 +148,8 @@ class ItemRequestServiceImplTest {
 
         assertThrows(NotFoundException.class, () -> itemRequestService.getAllRequests(owner.getId(), 0, 10));
         verify(userRepository, times(1)).findById(anyInt());
-        verify(itemRequestRepository, never()).findAll(any(PageRequest.class));
+        verify(itemRequestRepository, never())
+                .findAllByRequestor_IdNotOrderByCreatedDescIdDesc(anyInt(), any(PageRequest.class));
     }
 
     @Test
@@ -149,4 +186,24 @@ class ItemRequestServiceImplTest {
         verify(userRepository, times(1)).findById(anyInt());
         verify(itemRequestRepository, times(1)).findById(anyInt());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Подписка на новые запросы")
+    void subscribe_ReturnEmitter() {
+        SseEmitter emitter = new SseEmitter();
+        when(userRepository.existsById(anyInt())).thenReturn(true);
+        when(itemRequestStream.subscribe(anyInt())).thenReturn(emitter);
+
+        assertEquals(emitter, itemRequestService.subscribe(owner.getId()));
+        verify(itemRequestStream, times(1)).subscribe(owner.getId());
+    }
+
+    @Test
+    @DisplayName("Ошибка подписки на новые запросы, если пользователь не найден")
+    void subscribe_whenUserNotFound_thanNotFoundExceptionThrown() {
+        when(userRepository.existsById(anyInt())).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemRequestService.subscribe(owner.getId()));
+        verify(itemRequestStream, never()).subscribe(anyInt());
+    }
+}
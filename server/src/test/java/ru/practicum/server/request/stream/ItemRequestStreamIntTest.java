@@ -0,0 +1,78 @@
+package ru.practicum.server.request.stream;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.server.request.dto.ItemRequestDto;
+import ru.practicum.server.request.service.ItemRequestService;
+import ru.practicum.server.user.dto.UserDto;
+import ru.practicum.server.user.service.UserService;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "db.name=test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ItemRequestStreamIntTest {
+
+    private static final long DELIVERY_TIMEOUT_MILLIS = 5000;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Подписчик получает чужие новые запросы и не получает собственные")
+    void streamRequests_thenOnlyOtherUsersRequestsDelivered() {
+        UserDto subscriber = userService.saveUser(UserDto.builder().name("owner").email("owner@user.com").build());
+        UserDto requestor = userService.saveUser(UserDto.builder().name("requestor").email("requestor@user.com")
+                .build());
+
+        MockHttpServletResponse response = mockMvc.perform(get("/requests/stream")
+                        .header("X-Sharer-User-Id", subscriber.getId())
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+
+        itemRequestService.saveItemRequest(subscriber.getId(),
+                ItemRequestDto.builder().description("Собственный запрос").build());
+        ItemRequestDto saved = itemRequestService.saveItemRequest(requestor.getId(),
+                ItemRequestDto.builder().description("Нужна стремянка").build());
+
+        String content = awaitContent(response, "Нужна стремянка");
+        assertTrue(content.contains("event:request"));
+        assertTrue(content.contains("id:" + saved.getId()));
+        assertFalse(content.contains("Собственный запрос"));
+    }
+
+    @SneakyThrows
+    private String awaitContent(MockHttpServletResponse response, String expected) {
+        long deadline = System.currentTimeMillis() + DELIVERY_TIMEOUT_MILLIS;
+        String content = response.getContentAsString(StandardCharsets.UTF_8);
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            content = response.getContentAsString(StandardCharsets.UTF_8);
+        }
+        assertTrue(content.contains(expected));
+        return content;
+    }
+}
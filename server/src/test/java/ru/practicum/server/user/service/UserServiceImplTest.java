@@ -6,6 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.server.booking.service.BookingIntervalIndex;
 import ru.practicum.server.exception.NotFoundException;
 import ru.practicum.server.user.dto.UserDto;
 import ru.practicum.server.user.dto.UserMapper;
@@ -24,6 +25,8 @@ class UserServiceImplTest {
 
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -109,6 +112,7 @@ class UserServiceImplTest {
 
         userService.delete(user.getId());
 
+        verify(bookingIntervalIndex, times(1)).evictBookedBy(user.getId());
         verify(userRepository, times(1)).deleteById(anyInt());
     }
 
@@ -120,5 +124,6 @@ class UserServiceImplTest {
         assertThrows(NotFoundException.class, () -> userService.delete(user.getId()));
         verify(userRepository, times(1)).findById(anyInt());
         verify(userRepository, never()).deleteById(anyInt());
+        verify(bookingIntervalIndex, never()).evictBookedBy(anyInt());
     }
 }
\ No newline at end of file